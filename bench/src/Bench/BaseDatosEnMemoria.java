@@ -0,0 +1,431 @@
+package Bench;
+
+import Config.ConnectionFactory;
+import Config.ConnectionPool;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Origen de datos en memoria que reemplaza a MariaDB en los benchmarks.
+// Las Connection, PreparedStatement y ResultSet son proxies que entienden las
+// consultas de ProductoDAO y CodigoBarrasDAO lo justo para devolver filas de la
+// tabla generada:
+// - Columnas: las de la lista del SELECT (con alias y prefijos p./cb.), o las
+//   de la tabla para SELECT *. Así la consulta LAZY o el resumen devuelven
+//   menos columnas que el JOIN, igual que en la base real.
+// - Filas: por id, IN, LIKE sobre nombre/marca, valor, codigoBarras y página
+//   (id > ? ... LIMIT ?); codigobarras solo tiene las filas con código.
+// - Escrituras: se aceptan sin cambiar nada; executeBatch devuelve 1 por
+//   sentencia del lote y getGeneratedKeys IDs nuevos en orden.
+// Lo que no se simula (expresiones en el SELECT, subconsultas, ORDER BY que no
+// sea por id) falla con SQLException en vez de devolver filas inventadas, así
+// que solo se miden caminos que este origen modela. Los demás métodos
+// devuelven el valor por defecto del tipo (null, 0, false).
+// Así se mide el costo de la app (pool, cache de sentencias, mapeo, servicios)
+// sin la red ni el motor de base de datos.
+
+public final class BaseDatosEnMemoria implements ConnectionFactory {
+
+// Columnas de cada fila generada, con las etiquetas que usa el JOIN de
+// ProductoDAO (los del código de barras que chocan llevan prefijo cb_).
+
+    static final String[] COLUMNAS = {
+        "id", "nombre", "marca", "categoria", "precio", "peso", "codigoBarras",
+        "cb_id", "tipo", "valor", "fechaAsignacion", "observaciones", "version", "cb_version"
+    };
+
+    private static final String[] MARCAS = { "Arcor", "Bagley", "Serenisima", "Molinos", "Ledesma", "Quilmes" };
+    private static final String[] CATEGORIAS = { "Almacen", "Bebidas", "Lacteos", "Limpieza", "Perfumeria" };
+    private static final String[] NOMBRES = { "Galletitas", "Yerba", "Leche", "Azucar", "Fideos", "Aceite", "Cerveza" };
+
+// Columnas de SELECT * FROM codigobarras, en el orden de la tabla.
+
+    private static final Proyeccion CODIGOS_BARRAS = new Proyeccion(
+            new String[] { "id", "tipo", "valor", "fechaAsignacion", "observaciones", "version" },
+            new String[] { "cb_id", "tipo", "valor", "fechaAsignacion", "observaciones", "cb_version" });
+
+    private static final Proyeccion PRODUCTOS = new Proyeccion(
+            new String[] { "id", "nombre", "marca", "categoria", "precio", "peso", "codigoBarras", "version" },
+            new String[] { "id", "nombre", "marca", "categoria", "precio", "peso", "codigoBarras", "version" });
+
+    private static final Proyeccion COMPLETA = new Proyeccion(COLUMNAS, COLUMNAS);
+
+    private static final Proyeccion CLAVES = new Proyeccion(new String[] { "GENERATED_KEY" }, new int[] { 0 });
+
+    private final List<Object[]> filas;
+    private final Map<Integer, Object[]> porId = new HashMap<>();
+    private final AtomicInteger ultimoId;
+    private final Map<String, Proyeccion> proyecciones = new ConcurrentHashMap<>();
+
+// Genera "cantidad" productos activos; los pares tienen código de barras.
+
+    public BaseDatosEnMemoria(int cantidad) {
+        filas = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            boolean conCodigo = i % 2 == 0;
+            Object[] fila = {
+                i,
+                NOMBRES[i % NOMBRES.length] + " " + i,
+                MARCAS[i % MARCAS.length],
+                CATEGORIAS[i % CATEGORIAS.length],
+                100.0 + i % 1000,
+                0.5 + i % 10,
+                conCodigo ? i : null,
+                conCodigo ? i : null,
+                conCodigo ? "EAN13" : null,
+                conCodigo ? String.format("779%010d", i) : null,
+                conCodigo ? LocalDate.of(2024, 1, 1).plusDays(i % 365) : null,
+                conCodigo ? "Generado" : null,
+                0,
+                conCodigo ? 0 : null
+            };
+            filas.add(fila);
+            porId.put(i, fila);
+        }
+        ultimoId = new AtomicInteger(cantidad);
+    }
+
+    public int getCantidad() {
+        return filas.size();
+    }
+
+// Pool de conexiones sobre este origen de datos, con los mismos parámetros
+// por defecto que DatabaseConnection.
+
+    public ConnectionPool crearPool(int maxSize) {
+        return new ConnectionPool(this, 1, maxSize, 5_000, 2, 0, 0, 32);
+    }
+
+// ResultSet de una sola fila, ya posicionado y con las columnas del JOIN,
+// para medir el mapeo aislado.
+
+    public ResultSet resultadoDeFila(int id) throws SQLException {
+        ResultSet rs = resultado(List.<Object[]>of(porId.get(id)), COMPLETA);
+        rs.next();
+        return rs;
+    }
+
+    @Override
+    public Connection crear() {
+        return proxy(Connection.class, (p, m, args) -> {
+            switch (m.getName()) {
+                case "prepareStatement":
+                    return sentencia((String) args[0]);
+                case "createStatement":
+                    return sentencia(null);
+                case "isValid":
+                    return true;
+                case "getAutoCommit":
+                    return true;
+                default:
+                    return porDefecto(m);
+            }
+        });
+    }
+
+    private PreparedStatement sentencia(String sqlPreparado) {
+        Map<Integer, Object> parametros = new HashMap<>();
+        int[] enLote = { 0 };
+        List<Object[]> claves = new ArrayList<>();
+        return proxy(PreparedStatement.class, (p, m, args) -> {
+            String nombre = m.getName();
+            if (nombre.startsWith("set") && args != null && args.length == 2 && args[0] instanceof Integer) {
+                parametros.put((Integer) args[0], args[1]);
+                return null;
+            }
+            String sql = args != null && args.length >= 1 && args[0] instanceof String ? (String) args[0] : sqlPreparado;
+            switch (nombre) {
+                case "clearParameters":
+                    parametros.clear();
+                    return null;
+                case "executeQuery":
+                    return resultado(consultar(sql, parametros), proyeccion(sql));
+                case "executeUpdate":
+                    claves.clear();
+                    if (sql.startsWith("INSERT")) {
+                        claves.add(new Object[] { ultimoId.incrementAndGet() });
+                    }
+                    return 1;
+                case "addBatch":
+                    enLote[0]++;
+                    return null;
+                case "clearBatch":
+                    enLote[0] = 0;
+                    return null;
+                case "executeBatch":
+                    int[] actualizadas = new int[enLote[0]];
+                    Arrays.fill(actualizadas, 1);
+                    claves.clear();
+                    for (int i = 0; i < enLote[0]; i++) {
+                        claves.add(new Object[] { ultimoId.incrementAndGet() });
+                    }
+                    enLote[0] = 0;
+                    return actualizadas;
+                case "getGeneratedKeys":
+                    return resultado(new ArrayList<>(claves), CLAVES);
+                default:
+                    return porDefecto(m);
+            }
+        });
+    }
+
+// Filas candidatas por id o IN, filtradas después por las condiciones que se
+// reconocen en el WHERE. La página toma sus dos parámetros del final.
+
+    private List<Object[]> consultar(String sql, Map<Integer, Object> parametros) {
+        List<Object[]> candidatas;
+        if (sql.contains("IN (")) {
+            candidatas = new ArrayList<>();
+            for (Object id : new LinkedHashSet<>(parametros.values())) {
+                Object[] fila = porId.get((Integer) id);
+                if (fila != null) {
+                    candidatas.add(fila);
+                }
+            }
+        } else if (sql.contains("id = ?")) {
+            Object[] fila = porId.get((Integer) parametros.get(1));
+            candidatas = fila == null ? List.of() : List.<Object[]>of(fila);
+        } else {
+            candidatas = filas;
+        }
+
+        boolean codigos = sql.contains("FROM codigobarras");
+        String patron = sql.contains("LIKE ?") ? ((String) parametros.get(1)).replace("%", "").toLowerCase() : null;
+        Object valor = sql.contains("valor = ?") ? parametros.get(1) : null;
+        Object codigoBarras = sql.contains("codigoBarras = ?") ? parametros.get(1) : null;
+        boolean pagina = sql.contains("id > ?") && sql.contains("LIMIT ?");
+        int despuesDeId = pagina ? (Integer) parametros.get(parametros.size() - 1) : 0;
+        int limite = pagina ? (Integer) parametros.get(parametros.size()) : Integer.MAX_VALUE;
+
+        List<Object[]> encontradas = new ArrayList<>();
+        for (Object[] fila : candidatas) {
+            if (encontradas.size() >= limite) {
+                break;
+            }
+            if ((codigos && fila[7] == null)
+                    || (patron != null && !((String) fila[1]).toLowerCase().contains(patron)
+                        && !((String) fila[2]).toLowerCase().contains(patron))
+                    || (valor != null && !valor.equals(fila[9]))
+                    || (codigoBarras != null && !codigoBarras.equals(fila[6]))
+                    || (Integer) fila[0] <= despuesDeId) {
+                continue;
+            }
+            encontradas.add(fila);
+        }
+        return encontradas;
+    }
+
+// Columnas que devuelve la consulta, calculadas una vez por texto SQL.
+
+    private Proyeccion proyeccion(String sql) throws SQLException {
+        Proyeccion proyeccion = proyecciones.get(sql);
+        if (proyeccion == null) {
+            proyeccion = Proyeccion.de(sql);
+            proyecciones.put(sql, proyeccion);
+        }
+        return proyeccion;
+    }
+
+    private static ResultSet resultado(List<Object[]> filas, Proyeccion proyeccion) {
+        int[] actual = { -1 };
+        boolean[] ultimoNulo = { false };
+        return proxy(ResultSet.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object p, Method m, Object[] args) throws Throwable {
+                switch (m.getName()) {
+                    case "next":
+                        return ++actual[0] < filas.size();
+                    case "wasNull":
+                        return ultimoNulo[0];
+                    case "findColumn":
+                        return proyeccion.columna((String) args[0]);
+                    case "getMetaData":
+                        return proyeccion.metadatos();
+                    case "getInt":
+                    case "getDouble":
+                    case "getString":
+                    case "getObject":
+                    case "getLong":
+                        Object valor = filas.get(actual[0])[proyeccion.origen(args[0])];
+                        ultimoNulo[0] = valor == null;
+                        return convertir(valor, m.getReturnType(), m.getName());
+                    default:
+                        return porDefecto(m);
+                }
+            }
+        });
+    }
+
+// Columnas de un resultado: la etiqueta que ve el ResultSet y la posición de
+// su valor en la fila generada.
+
+    private static final class Proyeccion {
+
+        private final String[] etiquetas;
+        private final int[] origenes;
+
+        Proyeccion(String[] etiquetas, int[] origenes) {
+            this.etiquetas = etiquetas;
+            this.origenes = origenes;
+        }
+
+        Proyeccion(String[] etiquetas, String[] columnas) {
+            this(etiquetas, new int[columnas.length]);
+            for (int i = 0; i < columnas.length; i++) {
+                origenes[i] = posicion(columnas[i]);
+            }
+        }
+
+// Lee la lista del SELECT: "*" toma las columnas de la tabla; cada columna
+// puede tener prefijo (p., cb.) y alias (AS). Las de cb. que chocan con las
+// del producto salen de cb_id / cb_version.
+
+        static Proyeccion de(String sql) throws SQLException {
+            int desde = sql.indexOf("SELECT ");
+            int hasta = sql.indexOf(" FROM ");
+            if (desde < 0 || hasta < desde) {
+                throw new SQLException("Consulta no soportada por la base en memoria: " + sql);
+            }
+            String lista = sql.substring(desde + "SELECT ".length(), hasta).trim();
+            if (lista.equals("*")) {
+                if (sql.startsWith("codigobarras", hasta + " FROM ".length())) {
+                    return CODIGOS_BARRAS;
+                }
+                if (sql.startsWith("producto", hasta + " FROM ".length())) {
+                    return PRODUCTOS;
+                }
+                throw new SQLException("Consulta no soportada por la base en memoria: " + sql);
+            }
+            String[] items = lista.split(",");
+            String[] etiquetas = new String[items.length];
+            int[] origenes = new int[items.length];
+            for (int i = 0; i < items.length; i++) {
+                String[] partes = items[i].trim().split(" AS ");
+                String expresion = partes[0].trim();
+                int punto = expresion.indexOf('.');
+                String nombre = expresion.substring(punto + 1);
+                etiquetas[i] = partes.length > 1 ? partes[1].trim() : nombre;
+                int origen = -1;
+                if (expresion.startsWith("cb.")) {
+                    origen = buscar("cb_" + nombre);
+                }
+                if (origen < 0) {
+                    origen = buscar(nombre);
+                }
+                if (origen < 0) {
+                    throw new SQLException("Columna no soportada por la base en memoria: " + expresion);
+                }
+                origenes[i] = origen;
+            }
+            return new Proyeccion(etiquetas, origenes);
+        }
+
+// Como en MariaDB, una etiqueta repetida ("id") resuelve a la primera.
+
+        int columna(String etiqueta) throws SQLException {
+            for (int i = 0; i < etiquetas.length; i++) {
+                if (etiquetas[i].equalsIgnoreCase(etiqueta)) {
+                    return i + 1;
+                }
+            }
+            throw new SQLException("Columna desconocida: " + etiqueta);
+        }
+
+        int origen(Object columna) throws SQLException {
+            int indice = columna instanceof Integer ? (Integer) columna : columna((String) columna);
+            if (indice < 1 || indice > origenes.length) {
+                throw new SQLException("Índice de columna fuera de rango: " + indice);
+            }
+            return origenes[indice - 1];
+        }
+
+        ResultSetMetaData metadatos() {
+            return proxy(ResultSetMetaData.class, (p, m, args) -> {
+                switch (m.getName()) {
+                    case "getColumnCount":
+                        return etiquetas.length;
+                    case "getColumnLabel":
+                    case "getColumnName":
+                        return etiquetas[(Integer) args[0] - 1];
+                    default:
+                        return porDefecto(m);
+                }
+            });
+        }
+
+        private static int posicion(String columna) {
+            int origen = buscar(columna);
+            if (origen < 0) {
+                throw new IllegalArgumentException("Columna desconocida: " + columna);
+            }
+            return origen;
+        }
+
+        private static int buscar(String columna) {
+            for (int i = 0; i < COLUMNAS.length; i++) {
+                if (COLUMNAS[i].equalsIgnoreCase(columna)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static Object convertir(Object valor, Class<?> tipo, String metodo) {
+        if (valor == null) {
+            return tipo.isPrimitive() ? porDefecto(tipo) : null;
+        }
+        switch (metodo) {
+            case "getInt":
+                return ((Number) valor).intValue();
+            case "getLong":
+                return ((Number) valor).longValue();
+            case "getDouble":
+                return ((Number) valor).doubleValue();
+            case "getString":
+                return valor.toString();
+            default:
+                return valor;
+        }
+    }
+
+    private static Object porDefecto(Method m) {
+        return porDefecto(m.getReturnType());
+    }
+
+    private static Object porDefecto(Class<?> tipo) {
+        if (tipo == boolean.class) {
+            return false;
+        }
+        if (tipo == int.class) {
+            return 0;
+        }
+        if (tipo == long.class) {
+            return 0L;
+        }
+        if (tipo == double.class) {
+            return 0.0;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(BaseDatosEnMemoria.class.getClassLoader(),
+                new Class<?>[] { tipo }, handler);
+    }
+}
@@ -0,0 +1,100 @@
+package Dao;
+
+import Bench.BaseDatosEnMemoria;
+import Config.DatabaseConnection;
+import Entities.Producto;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Camino caliente de ProductoDAO sobre BaseDatosEnMemoria:
+// - mapear: solo ProductoRowMapper.mapRow sobre una fila ya posicionada (las
+//   columnas se resuelven una vez en el setup, como en un resultado de N filas).
+// - getById: préstamo del pool, cache de sentencias, consulta y mapeo.
+// - getByIds vs getByIdEnBucle: LOTE productos en consultas IN por bloques o
+//   con un getById (y un préstamo del pool) por producto.
+// Throughput da ops/s y SampleTime los percentiles (p99); la tasa de
+// asignación sale de correrlos con -prof gc (ver target "bench" de build.xml).
+
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductoDAOBenchmark {
+
+    private static final int LOTE = 50;
+
+    @Param({ "10000" })
+    public int productos;
+
+    private BaseDatosEnMemoria base;
+    private ProductoDAO productoDAO;
+    private ResultSet conCodigo;
+    private ResultSet sinCodigo;
+    private ProductoRowMapper mapper;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        base = new BaseDatosEnMemoria(productos);
+        DatabaseConnection.setPool(base.crearPool(4));
+        productoDAO = new ProductoDAO(new CodigoBarrasDAO());
+        conCodigo = base.resultadoDeFila(2);
+        sinCodigo = base.resultadoDeFila(1);
+        mapper = ProductoRowMapper.para(conCodigo);
+    }
+
+    @Benchmark
+    public Producto mapearConCodigoBarras() throws Exception {
+        return mapper.mapRow(conCodigo);
+    }
+
+    @Benchmark
+    public Producto mapearSinCodigoBarras() throws Exception {
+        return mapper.mapRow(sinCodigo);
+    }
+
+    @Benchmark
+    public Producto getById() throws Exception {
+        return productoDAO.getById(ThreadLocalRandom.current().nextInt(1, productos + 1));
+    }
+
+    @Benchmark
+    public Map<Integer, Producto> getByIds() throws Exception {
+        return productoDAO.getByIds(idsAleatorios());
+    }
+
+    @Benchmark
+    public List<Producto> getByIdEnBucle() throws Exception {
+        List<Producto> resultado = new ArrayList<>(LOTE);
+        for (int id : idsAleatorios()) {
+            resultado.add(productoDAO.getById(id));
+        }
+        return resultado;
+    }
+
+    private List<Integer> idsAleatorios() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Integer> ids = new ArrayList<>(LOTE);
+        for (int i = 0; i < LOTE; i++) {
+            ids.add(random.nextInt(1, productos + 1));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,119 @@
+package Service;
+
+import Config.DatabaseConnection;
+import Dao.CodigoBarrasDAO;
+import Dao.ProductoDAO;
+import Entities.Producto;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Paridad entre el índice de trigramas (IndiceTrigramas, el que usa
+// buscarPorNombreMarca con -Dbusqueda.indiceSubcadenas=true) y el LIKE del DAO
+// contra la base real (collation incluida). Inserta un catálogo fijo, compara
+// los dos resultados filtro por filtro restringidos a esas filas y las borra
+// al terminar. Termina con código 1 si alguna búsqueda difiere.
+// Cubre tildes, mayúsculas, eñe, filtros de 1-2 caracteres y puntuación.
+//     ant paridad-busqueda
+
+public final class ParidadBusqueda {
+
+    private static final String[][] CATALOGO = {
+        { "Café Molido", "La Virginia" },
+        { "CAFE INSTANTANEO", "Nescafé" },
+        { "café en grano", "Cabrales" },
+        { "Azúcar Común", "Ledesma" },
+        { "Jamón Crudo", "Paladini" },
+        { "Ñoquis de papa", "Don Vicente" },
+        { "Pingüino helado", "Frigor" },
+        { "Coca-Cola Zero", "Coca-Cola" },
+        { "7 Up", "Pepsico" },
+        { "M&M's", "Mars" },
+        { "Dulce de leche (light)", "La Serenísima" },
+        { "Galletitas 9 de Oro", "Bagley" },
+        { "Agua Mineral", "Villavicencio" },
+        { "  Aceite  de  oliva ", "Cocinero" },
+    };
+
+    private static final String[] FILTROS = {
+        "cafe", "CAFÉ", "Café", "caf", "ca", "a", "é", "e", "A",
+        "azucar", "AZÚCAR", "jamon", "ñoquis", "noquis", "Ñ", "n",
+        "pinguino", "pingüino", "serenisima", "SERENÍSIMA",
+        "coca-cola", "coca cola", "-", "cola-", "7 up", "7", "m&m", "&", "'",
+        "m's", "(light)", "(", ")", "9 de", "de", " de ", "  de  ", "oliva ", "zzz",
+    };
+
+    private ParidadBusqueda() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ProductoDAO productoDAO = new ProductoDAO(new CodigoBarrasDAO());
+        List<Producto> catalogo = new ArrayList<>();
+        Set<Integer> ids = new TreeSet<>();
+        int diferencias = 0;
+        try {
+            for (String[] fila : CATALOGO) {
+                Producto producto = new Producto(0, fila[0], fila[1], "Paridad", 1.0, 1.0);
+                productoDAO.insertar(producto);
+                catalogo.add(producto);
+                ids.add(producto.getId());
+            }
+
+            IndiceTrigramas indice = new IndiceTrigramas();
+            for (Producto producto : catalogo) {
+                indice.indexar(producto);
+            }
+
+            for (String filtro : FILTROS) {
+                Set<Integer> esperados = new TreeSet<>();
+                for (Producto producto : productoDAO.buscarPorNombreMarca(filtro)) {
+                    if (ids.contains(producto.getId())) {
+                        esperados.add(producto.getId());
+                    }
+                }
+                Set<Integer> obtenidos = new TreeSet<>(indice.buscar(filtro));
+                if (!esperados.equals(obtenidos)) {
+                    diferencias++;
+                    System.out.println("DIFIERE \"" + filtro + "\": LIKE=" + nombres(catalogo, esperados)
+                            + " índice=" + nombres(catalogo, obtenidos));
+                }
+            }
+        } finally {
+            borrar(ids);
+        }
+
+        System.out.println(FILTROS.length + " filtros, " + diferencias + " con diferencias");
+        if (diferencias > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static List<String> nombres(List<Producto> catalogo, Set<Integer> ids) {
+        List<String> nombres = new ArrayList<>();
+        for (Producto producto : catalogo) {
+            if (ids.contains(producto.getId())) {
+                nombres.add(producto.getNombre());
+            }
+        }
+        return nombres;
+    }
+
+// Borrado físico: las filas de prueba no deben quedar ni como eliminadas.
+
+    private static void borrar(Set<Integer> ids) throws Exception {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("DELETE FROM producto WHERE id = ?")) {
+            for (int id : ids) {
+                stmt.setInt(1, id);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package Service;
+
+import Bench.BaseDatosEnMemoria;
+import Config.DatabaseConnection;
+import Dao.CodigoBarrasDAO;
+import Dao.ProductoDAO;
+import Entities.CodigoBarras;
+import Entities.Producto;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Camino caliente de los servicios sobre BaseDatosEnMemoria:
+// - validaciones de CodigoBarrasServiceImpl y ProductoServiceImpl.
+// - getById con la cache de entidades (ids dentro y fuera de la cache).
+// - buscarPorNombreMarca (índice de trigramas + carga, activado con
+//   -Dbusqueda.indiceSubcadenas) y buscarTexto.
+// Mismos modos que ProductoDAOBenchmark: ops/s, p99 y, con -prof gc, bytes/op.
+
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Dcache.productos.max=1000", "-Dbusqueda.indiceSubcadenas=true" })
+public class ProductoServiceBenchmark {
+
+    @Param({ "10000" })
+    public int productos;
+
+// Ids que entran en la cache de productos (igual a -Dcache.productos.max del
+// fork); con ids al azar sobre todo el catálogo casi siempre se va al DAO.
+
+    private static final int IDS_CALIENTES = 1000;
+
+    private ProductoServiceImpl productoService;
+    private CodigoBarrasServiceImpl codigoBarrasService;
+    private CodigoBarras codigoBarras;
+    private Producto producto;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        BaseDatosEnMemoria base = new BaseDatosEnMemoria(productos);
+        DatabaseConnection.setPool(base.crearPool(4));
+        CodigoBarrasDAO codigoBarrasDAO = new CodigoBarrasDAO();
+        codigoBarrasService = new CodigoBarrasServiceImpl(codigoBarrasDAO);
+        productoService = new ProductoServiceImpl(new ProductoDAO(codigoBarrasDAO), codigoBarrasService);
+
+        codigoBarras = new CodigoBarras(0, "7790000000017", "EAN13", LocalDate.of(2024, 1, 1), "Bench");
+        producto = new Producto(0, "Yerba 1", "Molinos", "Almacen", 150.0, 1.0);
+        producto.setCodBarras(codigoBarras);
+
+        // Construye los índices en memoria antes de medir.
+        productoService.buscarPorNombreMarca("yerba");
+    }
+
+    @Benchmark
+    public CodigoBarras validarCodigoBarras() {
+        codigoBarrasService.validateCodigoBarras(codigoBarras);
+        return codigoBarras;
+    }
+
+    @Benchmark
+    public Producto validarProducto() {
+        productoService.validateProducto(producto);
+        return producto;
+    }
+
+    @Benchmark
+    public Producto getByIdCacheado() throws Exception {
+        return productoService.getById(ThreadLocalRandom.current().nextInt(1, IDS_CALIENTES + 1));
+    }
+
+    @Benchmark
+    public Producto getByIdAleatorio() throws Exception {
+        return productoService.getById(ThreadLocalRandom.current().nextInt(1, productos + 1));
+    }
+
+    @Benchmark
+    public List<Producto> buscarPorNombreMarca() throws Exception {
+        return productoService.buscarPorNombreMarca("serenis");
+    }
+
+    @Benchmark
+    public List<Producto> buscarTexto() throws Exception {
+        return productoService.buscarTexto("leche molinos", 20);
+    }
+}
@@ -0,0 +1,12 @@
+package Config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Abre una conexión física nueva. ConnectionPool la usa cada vez que necesita crecer.
+
+@FunctionalInterface
+public interface ConnectionFactory {
+
+    Connection crear() throws SQLException;
+}
@@ -0,0 +1,327 @@
+package Config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Pool acotado de conexiones JDBC.
+// - Mantiene entre minSize y maxSize conexiones físicas abiertas.
+// - Valida la conexión al prestarla (salvo que se haya usado hace instantes).
+// - Si no hay conexión libre espera como máximo acquireTimeoutMillis.
+// - Reporta por System.err las conexiones retenidas más de leakThresholdMillis.
+//   Por defecto solo se guarda cuándo se prestó cada una; la pila del préstamo
+//   (costosa en cada getConnection) se captura solo con -Ddb.pool.leakStacks=true.
+// - Cierra las conexiones ociosas que sobran por encima de minSize.
+// - Cada conexión física tiene su propia StatementCache de statementCacheSize
+//   sentencias (0 la desactiva).
+// - Opcionalmente mide cada sentencia y registra las lentas (setRegistroConsultasLentas).
+
+public class ConnectionPool {
+
+// Si la conexión se devolvió hace menos que esto, se omite el ping de validación.
+
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+
+    private static final long HOUSEKEEPING_PERIOD_MILLIS = 5_000;
+
+// Captura la pila de cada préstamo para mostrarla si la conexión se fuga (depuración).
+
+    private static final boolean CAPTURAR_ORIGEN = Boolean.getBoolean("db.pool.leakStacks");
+
+    private final ConnectionFactory factory;
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final int validationTimeoutSeconds;
+    private final long leakThresholdMillis;
+    private final long idleTimeoutMillis;
+    private final int statementCacheSize;
+
+    private final Semaphore permisos;
+    private final LinkedBlockingDeque<PhysicalConnection> ociosas = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> prestadas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger abiertas = new AtomicInteger();
+
+    private final AtomicLong totalPrestamos = new AtomicLong();
+    private final AtomicLong totalTimeouts = new AtomicLong();
+    private final AtomicLong totalInvalidas = new AtomicLong();
+    private final AtomicLong totalFugas = new AtomicLong();
+    private final LongAdder esperaTotalNanos = new LongAdder();
+    private final StatementCache.Counters contadoresCache = new StatementCache.Counters();
+
+    private final ScheduledExecutorService mantenimiento;
+    private volatile RegistroConsultasLentas registroConsultasLentas;
+    private volatile boolean cerrado;
+
+    public ConnectionPool(ConnectionFactory factory, int minSize, int maxSize, long acquireTimeoutMillis,
+                          int validationTimeoutSeconds, long leakThresholdMillis, long idleTimeoutMillis,
+                          int statementCacheSize) {
+        if (factory == null) {
+            throw new IllegalArgumentException("ConnectionFactory no puede ser null");
+        }
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Tamaños de pool inválidos: min=" + minSize + ", max=" + maxSize);
+        }
+        if (acquireTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("El timeout de adquisición debe ser mayor a 0");
+        }
+        this.factory = factory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permisos = new Semaphore(maxSize, true);
+
+        this.mantenimiento = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        this.mantenimiento.scheduleWithFixedDelay(this::housekeeping,
+                0, HOUSEKEEPING_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+// Presta una conexión. Al cerrarla (close) vuelve al pool.
+
+    public Connection getConnection() throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            if (!permisos.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                totalTimeouts.incrementAndGet();
+                throw new SQLTimeoutException("No se obtuvo una conexión del pool en " + acquireTimeoutMillis
+                        + " ms (activas: " + prestadas.size() + "/" + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido esperando una conexión del pool", e);
+        }
+
+        try {
+            PhysicalConnection fisica = takeValidConnection();
+            PooledConnection prestada = new PooledConnection(this, fisica.conexion, fisica.cache,
+                    registroConsultasLentas, CAPTURAR_ORIGEN && leakThresholdMillis > 0);
+            prestadas.add(prestada);
+            totalPrestamos.incrementAndGet();
+            esperaTotalNanos.add(System.nanoTime() - inicio);
+            return prestada.getProxy();
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+// Devuelve una foto del estado actual del pool.
+
+    public PoolStats getStats() {
+        long prestamos = totalPrestamos.get();
+        double esperaPromedio = prestamos == 0 ? 0 : esperaTotalNanos.sum() / (double) prestamos / 1_000_000.0;
+        return new PoolStats(prestadas.size(), ociosas.size(), abiertas.get(), permisos.getQueueLength(), maxSize,
+                prestamos, totalTimeouts.get(), totalInvalidas.get(), totalFugas.get(), esperaPromedio,
+                contadoresCache.hits.sum(), contadoresCache.misses.sum(), contadoresCache.evictions.sum());
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+// Activa el log de consultas lentas para las conexiones prestadas desde ahora
+// (null lo desactiva). El pool lo cierra en shutdown().
+
+    public void setRegistroConsultasLentas(RegistroConsultasLentas registro) {
+        this.registroConsultasLentas = registro;
+    }
+
+    public RegistroConsultasLentas getRegistroConsultasLentas() {
+        return registroConsultasLentas;
+    }
+
+// Cierra todas las conexiones ociosas. Las prestadas se cierran al devolverse.
+
+    public void shutdown() {
+        cerrado = true;
+        mantenimiento.shutdownNow();
+        PhysicalConnection ociosa;
+        while ((ociosa = ociosas.pollFirst()) != null) {
+            closePhysical(ociosa);
+        }
+        RegistroConsultasLentas registro = registroConsultasLentas;
+        if (registro != null) {
+            registro.cerrar();
+        }
+    }
+
+// Llamado por PooledConnection.close(). Limpia el estado transaccional y
+// deja la conexión disponible para el siguiente préstamo.
+
+    void release(PooledConnection prestada) {
+        prestadas.remove(prestada);
+        PhysicalConnection fisica = new PhysicalConnection(prestada.getFisica(), prestada.getStatementCache());
+        try {
+            if (cerrado || fisica.conexion.isClosed()) {
+                closePhysical(fisica);
+                return;
+            }
+            if (fisica.cache != null) {
+                fisica.cache.releaseAll();
+            }
+            if (!fisica.conexion.getAutoCommit()) {
+                fisica.conexion.rollback();
+                fisica.conexion.setAutoCommit(true);
+            }
+            ociosas.offerFirst(fisica);
+        } catch (SQLException e) {
+            System.err.println("Conexión descartada al devolverla al pool: " + e.getMessage());
+            closePhysical(fisica);
+        } finally {
+            permisos.release();
+        }
+    }
+
+// Toma la conexión ociosa más reciente (LIFO) y la valida; si no hay, abre una nueva.
+
+    private PhysicalConnection takeValidConnection() throws SQLException {
+        PhysicalConnection ociosa;
+        while ((ociosa = ociosas.pollFirst()) != null) {
+            if (System.currentTimeMillis() - ociosa.ultimoUso < VALIDATION_BYPASS_MILLIS || isValid(ociosa.conexion)) {
+                return ociosa;
+            }
+            totalInvalidas.incrementAndGet();
+            closePhysical(ociosa);
+        }
+        return openPhysical();
+    }
+
+    private boolean isValid(Connection conexion) {
+        try {
+            return conexion.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PhysicalConnection openPhysical() throws SQLException {
+        abiertas.incrementAndGet();
+        try {
+            return wrapPhysical(factory.crear());
+        } catch (SQLException | RuntimeException e) {
+            abiertas.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private PhysicalConnection wrapPhysical(Connection conexion) {
+        StatementCache cache = statementCacheSize > 0
+                ? new StatementCache(conexion, statementCacheSize, contadoresCache)
+                : null;
+        return new PhysicalConnection(conexion, cache);
+    }
+
+    private void closePhysical(PhysicalConnection fisica) {
+        abiertas.decrementAndGet();
+        if (fisica.cache != null) {
+            fisica.cache.closeAll();
+        }
+        try {
+            fisica.conexion.close();
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar conexión física: " + e.getMessage());
+        }
+    }
+
+// Tarea periódica: detecta fugas, recorta ociosas y repone el mínimo.
+
+    private void housekeeping() {
+        try {
+            detectLeaks();
+            evictIdle();
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            System.err.println("Error en mantenimiento del pool: " + e.getMessage());
+        }
+    }
+
+    private void detectLeaks() {
+        if (leakThresholdMillis <= 0) {
+            return;
+        }
+        long ahora = System.currentTimeMillis();
+        for (PooledConnection prestada : prestadas) {
+            long retenida = ahora - prestada.getPrestadaEn();
+            if (retenida > leakThresholdMillis && !prestada.isFugaReportada()) {
+                prestada.marcarFugaReportada();
+                totalFugas.incrementAndGet();
+                System.err.println("Posible fuga de conexión: retenida hace " + retenida + " ms sin devolverse al pool");
+                if (prestada.getOrigen() != null) {
+                    prestada.getOrigen().printStackTrace();
+                } else {
+                    System.err.println("(con -Ddb.pool.leakStacks=true se muestra desde dónde se prestó)");
+                }
+            }
+        }
+    }
+
+    private void evictIdle() {
+        if (idleTimeoutMillis <= 0) {
+            return;
+        }
+        long limite = System.currentTimeMillis() - idleTimeoutMillis;
+        Iterator<PhysicalConnection> it = ociosas.descendingIterator();
+        while (it.hasNext() && abiertas.get() > minSize) {
+            PhysicalConnection ociosa = it.next();
+            if (ociosa.ultimoUso < limite && ociosas.remove(ociosa)) {
+                closePhysical(ociosa);
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!cerrado) {
+            int actuales = abiertas.get();
+            if (actuales >= minSize) {
+                return;
+            }
+            if (!abiertas.compareAndSet(actuales, actuales + 1)) {
+                continue;
+            }
+            try {
+                ociosas.offerLast(wrapPhysical(factory.crear()));
+            } catch (SQLException e) {
+                abiertas.decrementAndGet();
+                System.err.println("No se pudo abrir la conexión mínima del pool: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+// Conexión física con su cache de sentencias y el momento en que quedó libre.
+
+    private static final class PhysicalConnection {
+        private final Connection conexion;
+        private final StatementCache cache;
+        private final long ultimoUso;
+
+        private PhysicalConnection(Connection conexion, StatementCache cache) {
+            this.conexion = conexion;
+            this.cache = cache;
+            this.ultimoUso = System.currentTimeMillis();
+        }
+    }
+}
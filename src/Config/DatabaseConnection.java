@@ -1,5 +1,6 @@
 package Config;
 
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -9,29 +10,36 @@ public class DatabaseConnection {
 // Datos básicos de conexión a la base de datos
 
 
-    private static final String URL = "jdbc:mariadb://localhost:3306/dbProdCodBarras"; //direccion mariadb
+    private static final String URL = "jdbc:mariadb://localhost:3306/dbProdCodBarras?useServerPrepStmts=true"; //direccion mariadb
     private static final String USER = "root";
     private static final String PASSWORD = "";
 
-    static {
-        try {
-           
-// Carga única del driver JDBC al iniciar la clase
-            
-            
-            Class.forName("org.mariadb.jdbc.Driver"); //driver mariadb
-            
-        } catch (ClassNotFoundException e) {
+// Parámetros del pool de conexiones. Se pueden ajustar con -Ddb.pool.*
 
-// Lanza excepción si el driver JDBC no está disponible
+    private static final int POOL_MIN = Integer.getInteger("db.pool.min", 2);
+    private static final int POOL_MAX = Integer.getInteger("db.pool.max", 10);
+    private static final long POOL_ACQUIRE_TIMEOUT_MS = Long.getLong("db.pool.acquireTimeoutMs", 5_000L);
+    private static final int POOL_VALIDATION_TIMEOUT_S = Integer.getInteger("db.pool.validationTimeoutS", 2);
+    private static final long POOL_LEAK_THRESHOLD_MS = Long.getLong("db.pool.leakThresholdMs", 30_000L);
+    private static final long POOL_IDLE_TIMEOUT_MS = Long.getLong("db.pool.idleTimeoutMs", 600_000L);
+    private static final int POOL_STATEMENT_CACHE_SIZE = Integer.getInteger("db.pool.statementCacheSize", 32);
 
+// Log de consultas lentas (-Ddb.slowlog.*). Apagado por defecto: activo, cada
+// sentencia pasa por SentenciaMedida y hay un hilo escribiendo el archivo. Se
+// enciende con un umbral >= 0, por ejemplo -Ddb.slowlog.thresholdMs=200
+// (0 registra todas las consultas).
 
-            throw new RuntimeException("Error: No se encontró el driver JDBC.", e);
-        }
-    }
+    private static final long SLOWLOG_THRESHOLD_MS = Long.getLong("db.slowlog.thresholdMs", -1L);
+    private static final String SLOWLOG_FILE = System.getProperty("db.slowlog.file", "logs/consultas-lentas.log");
+    private static final long SLOWLOG_MAX_BYTES = Long.getLong("db.slowlog.maxBytes", 10L * 1024 * 1024);
+    private static final int SLOWLOG_ROTATED_FILES = Integer.getInteger("db.slowlog.files", 5);
+
+// Pool compartido por todos los DAOs. Se crea en el primer getConnection().
 
+    private static volatile ConnectionPool pool;
 
-//Devuelve una conexión activa a la base de datos.
+//Devuelve una conexión activa a la base de datos, prestada por el pool.
+//Al cerrarla (try-with-resources) vuelve al pool en lugar de cerrarse.
 //@return Connection establecida correctamente.
 //@throws SQLException si ocurre un error al conectar.
  
@@ -44,6 +52,67 @@ public class DatabaseConnection {
         if (URL == null || URL.isEmpty() || USER == null || USER.isEmpty() || PASSWORD == null ) {
             throw new SQLException("Configuración de la base de datos incompleta o inválida.");
         }
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return getPool().getConnection();
+    }
+
+// Devuelve el pool compartido, creándolo la primera vez.
+
+    public static ConnectionPool getPool() {
+        ConnectionPool actual = pool;
+        if (actual == null) {
+            synchronized (DatabaseConnection.class) {
+                actual = pool;
+                if (actual == null) {
+                    cargarDriver();
+                    actual = new ConnectionPool(() -> DriverManager.getConnection(URL, USER, PASSWORD),
+                            POOL_MIN, POOL_MAX, POOL_ACQUIRE_TIMEOUT_MS, POOL_VALIDATION_TIMEOUT_S,
+                            POOL_LEAK_THRESHOLD_MS, POOL_IDLE_TIMEOUT_MS, POOL_STATEMENT_CACHE_SIZE);
+                    if (SLOWLOG_THRESHOLD_MS >= 0) {
+                        actual.setRegistroConsultasLentas(new RegistroConsultasLentas(SLOWLOG_THRESHOLD_MS,
+                                Path.of(SLOWLOG_FILE), SLOWLOG_MAX_BYTES, SLOWLOG_ROTATED_FILES));
+                    }
+                    Runtime.getRuntime().addShutdownHook(new Thread(actual::shutdown, "connection-pool-shutdown"));
+                    pool = actual;
+                }
+            }
+        }
+        return actual;
+    }
+
+// Reemplaza el pool compartido (por ejemplo, uno sobre un origen de datos en
+// memoria para benchmarks). El pool anterior, si había, se cierra.
+
+    public static void setPool(ConnectionPool nuevo) {
+        if (nuevo == null) {
+            throw new IllegalArgumentException("El pool no puede ser null");
+        }
+        ConnectionPool anterior;
+        synchronized (DatabaseConnection.class) {
+            anterior = pool;
+            pool = nuevo;
+        }
+        if (anterior != null) {
+            anterior.shutdown();
+        }
+    }
+
+// Estadísticas en vivo del pool (activas, ociosas, esperas, fugas...).
+
+    public static PoolStats getPoolStats() {
+        return getPool().getStats();
+    }
+
+// Carga del driver JDBC, recién al crear el pool real: si se inyecta otro
+// pool con setPool no hace falta tener el driver en el classpath.
+
+    private static void cargarDriver() {
+        try {
+            Class.forName("org.mariadb.jdbc.Driver"); //driver mariadb
+        } catch (ClassNotFoundException e) {
+
+// Lanza excepción si el driver JDBC no está disponible
+
+            throw new RuntimeException("Error: No se encontró el driver JDBC.", e);
+        }
     }
-}
\ No newline at end of file
+}
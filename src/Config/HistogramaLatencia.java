@@ -0,0 +1,106 @@
+package Config;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Histograma de latencias sin locks, con cubetas log-lineales: cada potencia de
+// dos se divide en 16 cubetas iguales, así el error relativo de un percentil es
+// menor a 1/16 (~6%) en todo el rango (1 ns a ~2 h) con solo 640 contadores.
+// registrar() es un incremento atómico sobre el arreglo, apto para el camino
+// caliente; los percentiles se calculan sobre una foto al consultarlos.
+
+public final class HistogramaLatencia {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int MAX_EXPONENTE = 42;
+    private static final int CUBETAS = (MAX_EXPONENTE - SUB_BITS + 2) * SUB;
+
+    private final AtomicLongArray conteos = new AtomicLongArray(CUBETAS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumaNanos = new LongAdder();
+    private final AtomicLong maximoNanos = new AtomicLong();
+
+    public void registrar(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        conteos.incrementAndGet(indice(nanos));
+        total.increment();
+        sumaNanos.add(nanos);
+        long maximo;
+        while (nanos > (maximo = maximoNanos.get()) && !maximoNanos.compareAndSet(maximo, nanos)) {
+            // otro hilo registró un máximo a la vez; reintenta con el nuevo valor
+        }
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getMaximoNanos() {
+        return maximoNanos.get();
+    }
+
+    public double getPromedioNanos() {
+        long n = total.sum();
+        return n == 0 ? 0 : sumaNanos.sum() / (double) n;
+    }
+
+// Valor (en ns) por debajo del cual cae la fracción p de las muestras (0 < p <= 1).
+
+    public long percentil(double p) {
+        long[] foto = new long[CUBETAS];
+        long n = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            foto[i] = conteos.get(i);
+            n += foto[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(p * n));
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += foto[i];
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximoNanos.get());
+            }
+        }
+        return maximoNanos.get();
+    }
+
+// No es atómico respecto de registrar(): alguna muestra concurrente puede
+// quedar contada a medias. Alcanza para empezar una ventana de observación.
+
+    public void reiniciar() {
+        for (int i = 0; i < CUBETAS; i++) {
+            conteos.set(i, 0);
+        }
+        total.reset();
+        sumaNanos.reset();
+        maximoNanos.set(0);
+    }
+
+    static int indice(long nanos) {
+        if (nanos < SUB) {
+            return (int) nanos;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponente > MAX_EXPONENTE) {
+            return CUBETAS - 1;
+        }
+        int sub = (int) ((nanos >>> (exponente - SUB_BITS)) & (SUB - 1));
+        return (exponente - SUB_BITS + 1) * SUB + sub;
+    }
+
+    static long limiteSuperior(int indice) {
+        if (indice < SUB) {
+            return indice;
+        }
+        int exponente = indice / SUB + SUB_BITS - 1;
+        long ancho = 1L << (exponente - SUB_BITS);
+        return (SUB + indice % SUB) * ancho + ancho - 1;
+    }
+}
@@ -0,0 +1,61 @@
+package Config;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Registro de las métricas por operación de DAOs y servicios.
+// Cada operación se publica en JMX como
+//   integradorp2:type=Operacion,componente=<Clase>,name=<metodo>
+// con llamadas, errores, filas y percentiles de latencia (p50/p90/p99/p99.9).
+// Con -Dmetricas.jmx=false no se registran MBeans (las métricas se siguen midiendo).
+
+public final class Metricas {
+
+    private static final String DOMINIO = "integradorp2";
+    private static final boolean JMX = Boolean.parseBoolean(System.getProperty("metricas.jmx", "true"));
+
+    private static final ConcurrentMap<String, MetricasOperacion> OPERACIONES = new ConcurrentHashMap<>();
+
+    private Metricas() {
+    }
+
+// Devuelve (creándolas la primera vez) las métricas de componente.metodo.
+// Pensado para guardarse en un campo static final de la clase instrumentada.
+
+    public static MetricasOperacion operacion(String componente, String metodo) {
+        return OPERACIONES.computeIfAbsent(componente + "." + metodo, nombre -> {
+            MetricasOperacion metricas = new MetricasOperacion(nombre);
+            if (JMX) {
+                registrarMBean(componente, metodo, metricas);
+            }
+            return metricas;
+        });
+    }
+
+// Métricas de todas las operaciones registradas, ordenadas por nombre.
+
+    public static List<MetricasOperacion> getOperaciones() {
+        List<MetricasOperacion> lista = new ArrayList<>(OPERACIONES.values());
+        lista.sort((a, b) -> a.getNombre().compareTo(b.getNombre()));
+        return lista;
+    }
+
+    private static void registrarMBean(String componente, String metodo, MetricasOperacion metricas) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nombre = new ObjectName(DOMINIO + ":type=Operacion,componente="
+                    + componente + ",name=" + metodo);
+            if (!servidor.isRegistered(nombre)) {
+                servidor.registerMBean(metricas, nombre);
+            }
+        } catch (JMException e) {
+            System.err.println("No se pudo publicar la métrica " + componente + "." + metodo + " en JMX: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package Config;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Métricas de una operación de DAO o servicio: histograma de latencia,
+// llamadas, errores y filas devueltas o escritas. Se obtiene con
+// Metricas.operacion(...) y se publica como MBean.
+
+public final class MetricasOperacion implements MetricasOperacionMBean {
+
+    @FunctionalInterface
+    public interface Operacion<T, E extends Exception> {
+
+        T ejecutar() throws E;
+    }
+
+    @FunctionalInterface
+    public interface Accion<E extends Exception> {
+
+        void ejecutar() throws E;
+    }
+
+    private final String nombre;
+    private final HistogramaLatencia latencias = new HistogramaLatencia();
+    private final LongAdder errores = new LongAdder();
+    private final LongAdder filas = new LongAdder();
+
+    MetricasOperacion(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+// Ejecuta y mide una operación que devuelve un resultado. Las filas se cuentan
+// según el resultado: tamaño de la colección, 0 si es null, 1 si no.
+// Para un Stream se mide solo la apertura y las filas se cuentan al consumirlo.
+
+    public <T, E extends Exception> T medir(Operacion<T, E> operacion) throws E {
+        long inicio = System.nanoTime();
+        boolean ok = false;
+        try {
+            T resultado = operacion.ejecutar();
+            ok = true;
+            return contarFilas(resultado);
+        } finally {
+            registrar(inicio, ok);
+        }
+    }
+
+// Ejecuta y mide una operación sin resultado que afecta "cantidadFilas" filas.
+
+    public <E extends Exception> void medir(int cantidadFilas, Accion<E> accion) throws E {
+        long inicio = System.nanoTime();
+        boolean ok = false;
+        try {
+            accion.ejecutar();
+            ok = true;
+            filas.add(cantidadFilas);
+        } finally {
+            registrar(inicio, ok);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T contarFilas(T resultado) {
+        if (resultado == null) {
+            return null;
+        }
+        if (resultado instanceof Collection<?> coleccion) {
+            filas.add(coleccion.size());
+        } else if (resultado instanceof Map<?, ?> mapa) {
+            filas.add(mapa.size());
+        } else if (resultado instanceof Stream<?> stream) {
+            return (T) stream.peek(fila -> filas.increment());
+        } else {
+            filas.increment();
+        }
+        return resultado;
+    }
+
+    private void registrar(long inicio, boolean ok) {
+        latencias.registrar(System.nanoTime() - inicio);
+        if (!ok) {
+            errores.increment();
+        }
+    }
+
+    public HistogramaLatencia getLatencias() {
+        return latencias;
+    }
+
+    @Override
+    public long getLlamadas() {
+        return latencias.getTotal();
+    }
+
+    @Override
+    public long getErrores() {
+        return errores.sum();
+    }
+
+    @Override
+    public long getFilas() {
+        return filas.sum();
+    }
+
+    @Override
+    public double getPromedioMicros() {
+        return latencias.getPromedioNanos() / 1_000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latencias.percentil(0.50) / 1_000.0;
+    }
+
+    @Override
+    public double getP90Micros() {
+        return latencias.percentil(0.90) / 1_000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latencias.percentil(0.99) / 1_000.0;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return latencias.percentil(0.999) / 1_000.0;
+    }
+
+    @Override
+    public double getMaximoMicros() {
+        return latencias.getMaximoNanos() / 1_000.0;
+    }
+
+    @Override
+    public void reiniciar() {
+        latencias.reiniciar();
+        errores.reset();
+        filas.reset();
+    }
+
+    @Override
+    public String toString() {
+        return nombre + " [llamadas=" + getLlamadas()
+                + ", errores=" + getErrores()
+                + ", filas=" + getFilas()
+                + ", p50Us=" + String.format("%.1f", getP50Micros())
+                + ", p99Us=" + String.format("%.1f", getP99Micros())
+                + ", maxUs=" + String.format("%.1f", getMaximoMicros()) + "]";
+    }
+}
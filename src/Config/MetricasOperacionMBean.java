@@ -0,0 +1,26 @@
+package Config;
+
+// Vista JMX de las métricas de una operación (tiempos en microsegundos).
+
+public interface MetricasOperacionMBean {
+
+    long getLlamadas();
+
+    long getErrores();
+
+    long getFilas();
+
+    double getPromedioMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaximoMicros();
+
+    void reiniciar();
+}
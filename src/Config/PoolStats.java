@@ -0,0 +1,129 @@
+package Config;
+
+// Foto inmutable del estado del pool de conexiones en un instante dado.
+
+public class PoolStats {
+
+    private final int activas;
+    private final int ociosas;
+    private final int abiertas;
+    private final int esperando;
+    private final int maximo;
+    private final long totalPrestamos;
+    private final long totalTimeouts;
+    private final long totalInvalidas;
+    private final long totalFugas;
+    private final double esperaPromedioMillis;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+    private final long statementCacheEvictions;
+
+    public PoolStats(int activas, int ociosas, int abiertas, int esperando, int maximo,
+                     long totalPrestamos, long totalTimeouts, long totalInvalidas, long totalFugas,
+                     double esperaPromedioMillis, long statementCacheHits, long statementCacheMisses,
+                     long statementCacheEvictions) {
+        this.activas = activas;
+        this.ociosas = ociosas;
+        this.abiertas = abiertas;
+        this.esperando = esperando;
+        this.maximo = maximo;
+        this.totalPrestamos = totalPrestamos;
+        this.totalTimeouts = totalTimeouts;
+        this.totalInvalidas = totalInvalidas;
+        this.totalFugas = totalFugas;
+        this.esperaPromedioMillis = esperaPromedioMillis;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+        this.statementCacheEvictions = statementCacheEvictions;
+    }
+
+// Conexiones prestadas en este momento.
+
+    public int getActivas() {
+        return activas;
+    }
+
+// Conexiones físicas abiertas esperando ser prestadas.
+
+    public int getOciosas() {
+        return ociosas;
+    }
+
+// Total de conexiones físicas abiertas (activas + ociosas).
+
+    public int getAbiertas() {
+        return abiertas;
+    }
+
+// Hilos bloqueados esperando una conexión libre.
+
+    public int getEsperando() {
+        return esperando;
+    }
+
+    public int getMaximo() {
+        return maximo;
+    }
+
+    public long getTotalPrestamos() {
+        return totalPrestamos;
+    }
+
+    public long getTotalTimeouts() {
+        return totalTimeouts;
+    }
+
+// Conexiones descartadas por no pasar la validación al prestarse.
+
+    public long getTotalInvalidas() {
+        return totalInvalidas;
+    }
+
+// Conexiones retenidas más allá del umbral de fuga.
+
+    public long getTotalFugas() {
+        return totalFugas;
+    }
+
+    public double getEsperaPromedioMillis() {
+        return esperaPromedioMillis;
+    }
+
+// PreparedStatement reutilizados desde la cache de sentencias.
+
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+// PreparedStatement que hubo que preparar de nuevo.
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    public long getStatementCacheEvictions() {
+        return statementCacheEvictions;
+    }
+
+    public double getStatementCacheHitRatio() {
+        long total = statementCacheHits + statementCacheMisses;
+        return total == 0 ? 0 : statementCacheHits / (double) total;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats [activas=" + activas
+                + ", ociosas=" + ociosas
+                + ", abiertas=" + abiertas
+                + ", esperando=" + esperando
+                + ", maximo=" + maximo
+                + ", prestamos=" + totalPrestamos
+                + ", timeouts=" + totalTimeouts
+                + ", invalidas=" + totalInvalidas
+                + ", fugas=" + totalFugas
+                + ", esperaPromedioMs=" + String.format("%.3f", esperaPromedioMillis)
+                + ", stmtCacheHits=" + statementCacheHits
+                + ", stmtCacheMisses=" + statementCacheMisses
+                + ", stmtCacheEvictions=" + statementCacheEvictions + "]";
+    }
+}
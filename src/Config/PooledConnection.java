@@ -0,0 +1,121 @@
+package Config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Envoltorio de una conexión física prestada por ConnectionPool.
+// close() no cierra la conexión real: la devuelve al pool. El resto de los
+// métodos se delegan tal cual, así los DAOs siguen usando try-with-resources.
+// prepareStatement(sql) y prepareStatement(sql, autoGeneratedKeys) pasan por la
+// StatementCache de la conexión física.
+// Si el pool tiene log de consultas lentas, las sentencias devueltas se
+// envuelven en SentenciaMedida.
+
+final class PooledConnection implements InvocationHandler {
+
+    private final ConnectionPool pool;
+    private final Connection fisica;
+    private final StatementCache statementCache;
+    private final RegistroConsultasLentas registroLentas;
+    private final Connection proxy;
+    private final long prestadaEn;
+    private final Throwable origen;
+    private final AtomicBoolean devuelta = new AtomicBoolean(false);
+    private volatile boolean fugaReportada;
+
+    PooledConnection(ConnectionPool pool, Connection fisica, StatementCache statementCache,
+                     RegistroConsultasLentas registroLentas, boolean capturarOrigen) {
+        this.pool = pool;
+        this.fisica = fisica;
+        this.statementCache = statementCache;
+        this.registroLentas = registroLentas;
+        this.prestadaEn = System.currentTimeMillis();
+        this.origen = capturarOrigen ? new Throwable("Conexión prestada desde") : null;
+        this.proxy = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, this);
+    }
+
+    Connection getProxy() {
+        return proxy;
+    }
+
+    Connection getFisica() {
+        return fisica;
+    }
+
+    StatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    long getPrestadaEn() {
+        return prestadaEn;
+    }
+
+    Throwable getOrigen() {
+        return origen;
+    }
+
+    boolean isFugaReportada() {
+        return fugaReportada;
+    }
+
+    void marcarFugaReportada() {
+        fugaReportada = true;
+    }
+
+    @Override
+    public Object invoke(Object p, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "close":
+                if (devuelta.compareAndSet(false, true)) {
+                    pool.release(this);
+                }
+                return null;
+            case "isClosed":
+                if (devuelta.get()) {
+                    return true;
+                }
+                break;
+            case "equals":
+                return p == args[0];
+            case "hashCode":
+                return System.identityHashCode(p);
+            case "toString":
+                return "PooledConnection[" + fisica + "]";
+            default:
+                break;
+        }
+
+        if (devuelta.get()) {
+            throw new SQLException("La conexión ya fue devuelta al pool");
+        }
+        Object resultado = delegar(method, args);
+        if (registroLentas != null && resultado instanceof Statement sentencia) {
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            return SentenciaMedida.envolver(sentencia, sql, registroLentas);
+        }
+        return resultado;
+    }
+
+    private Object delegar(Method method, Object[] args) throws Throwable {
+        if (statementCache != null && method.getName().equals("prepareStatement")) {
+            if (args.length == 1) {
+                return statementCache.prepare((String) args[0]);
+            }
+            if (args.length == 2 && method.getParameterTypes()[1] == int.class) {
+                return statementCache.prepare((String) args[0], (Integer) args[1]);
+            }
+        }
+        try {
+            return method.invoke(fisica, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package Config;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Log de consultas lentas. Las sentencias medidas (SentenciaMedida) que superan
+// el umbral se encolan sin bloquear; un hilo aparte les da formato y las
+// escribe. Si la cola se llena, la entrada se descarta y se cuenta, para que
+// el log nunca agregue latencia a la consulta.
+// El archivo rota al superar maxBytes: archivo -> archivo.1 -> ... -> archivo.N.
+// Opcional: DatabaseConnection solo lo crea con -Ddb.slowlog.thresholdMs >= 0.
+
+public final class RegistroConsultasLentas {
+
+    private static final int CAPACIDAD_COLA = 10_000;
+    private static final int LARGO_MAXIMO_PARAMETRO = 200;
+    private static final DateTimeFormatter FORMATO_FECHA =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private final long umbralNanos;
+    private final Path archivo;
+    private final long maxBytes;
+    private final int archivosRotados;
+
+    private final BlockingQueue<Entrada> cola = new ArrayBlockingQueue<>(CAPACIDAD_COLA);
+    private final AtomicLong registradas = new AtomicLong();
+    private final AtomicLong descartadas = new AtomicLong();
+    private final Thread escritor;
+    private volatile boolean cerrado;
+
+    private BufferedWriter salida;
+    private long bytesArchivo;
+
+    public RegistroConsultasLentas(long umbralMillis, Path archivo, long maxBytes, int archivosRotados) {
+        if (umbralMillis < 0) {
+            throw new IllegalArgumentException("El umbral no puede ser negativo");
+        }
+        if (archivo == null || maxBytes <= 0 || archivosRotados < 0) {
+            throw new IllegalArgumentException("Archivo y tamaños del log de consultas lentas inválidos");
+        }
+        this.umbralNanos = TimeUnit.MILLISECONDS.toNanos(umbralMillis);
+        this.archivo = archivo;
+        this.maxBytes = maxBytes;
+        this.archivosRotados = archivosRotados;
+        this.escritor = new Thread(this::escribirPendientes, "slow-query-log");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    public long getRegistradas() {
+        return registradas.get();
+    }
+
+    public long getDescartadas() {
+        return descartadas.get();
+    }
+
+// Llamado por SentenciaMedida al terminar una consulta. Nunca bloquea.
+
+    void registrar(String sql, Map<Integer, Object> parametros, long ejecucionNanos, long lecturaNanos, long filas) {
+        if (cerrado || ejecucionNanos + lecturaNanos < umbralNanos) {
+            return;
+        }
+        Entrada entrada = new Entrada(System.currentTimeMillis(), sql, new TreeMap<>(parametros),
+                ejecucionNanos, lecturaNanos, filas);
+        if (cola.offer(entrada)) {
+            registradas.incrementAndGet();
+        } else {
+            descartadas.incrementAndGet();
+        }
+    }
+
+// Escribe lo pendiente y detiene el hilo escritor.
+
+    public void cerrar() {
+        cerrado = true;
+        escritor.interrupt();
+        try {
+            escritor.join(2_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void escribirPendientes() {
+        List<Entrada> lote = new ArrayList<>();
+        try {
+            abrir();
+            while (!cerrado || !cola.isEmpty()) {
+                Entrada primera;
+                try {
+                    primera = cola.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    primera = cola.poll();
+                }
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+                cola.drainTo(lote);
+                for (Entrada entrada : lote) {
+                    escribir(formatear(entrada));
+                }
+                lote.clear();
+                salida.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Log de consultas lentas detenido: " + e.getMessage());
+        } finally {
+            cerrarSalida();
+        }
+    }
+
+    private void abrir() throws IOException {
+        Path carpeta = archivo.toAbsolutePath().getParent();
+        if (carpeta != null) {
+            Files.createDirectories(carpeta);
+        }
+        bytesArchivo = Files.exists(archivo) ? Files.size(archivo) : 0;
+        salida = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private void escribir(String linea) throws IOException {
+        int bytes = linea.getBytes(StandardCharsets.UTF_8).length + 1;
+        if (bytesArchivo > 0 && bytesArchivo + bytes > maxBytes) {
+            rotar();
+        }
+        salida.write(linea);
+        salida.newLine();
+        bytesArchivo += bytes;
+    }
+
+    private void rotar() throws IOException {
+        salida.close();
+        if (archivosRotados == 0) {
+            Files.deleteIfExists(archivo);
+        } else {
+            Files.deleteIfExists(rotado(archivosRotados));
+            for (int i = archivosRotados - 1; i >= 1; i--) {
+                if (Files.exists(rotado(i))) {
+                    Files.move(rotado(i), rotado(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(archivo, rotado(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        abrir();
+    }
+
+    private Path rotado(int numero) {
+        return archivo.resolveSibling(archivo.getFileName() + "." + numero);
+    }
+
+    private void cerrarSalida() {
+        if (salida == null) {
+            return;
+        }
+        try {
+            salida.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar el log de consultas lentas: " + e.getMessage());
+        }
+    }
+
+// Ejemplo:
+// 2024-05-02 10:15:03.120 | total=512.3ms exec=500.1ms fetch=12.2ms filas=1000 | SELECT ... | params=[1='%yerba%']
+
+    private static String formatear(Entrada entrada) {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(FORMATO_FECHA.format(Instant.ofEpochMilli(entrada.momento)))
+                .append(" | total=").append(millis(entrada.ejecucionNanos + entrada.lecturaNanos))
+                .append(" exec=").append(millis(entrada.ejecucionNanos))
+                .append(" fetch=").append(millis(entrada.lecturaNanos))
+                .append(" filas=").append(entrada.filas)
+                .append(" | ").append(entrada.sql.replaceAll("\\s+", " ").trim())
+                .append(" | params=[");
+        boolean primero = true;
+        for (Map.Entry<Integer, Object> parametro : entrada.parametros.entrySet()) {
+            if (!primero) {
+                sb.append(", ");
+            }
+            primero = false;
+            sb.append(parametro.getKey()).append('=');
+            Object valor = parametro.getValue();
+            if (valor == null) {
+                sb.append("NULL");
+            } else {
+                String texto = valor.toString();
+                if (texto.length() > LARGO_MAXIMO_PARAMETRO) {
+                    texto = texto.substring(0, LARGO_MAXIMO_PARAMETRO) + "...";
+                }
+                sb.append(valor instanceof Number || valor instanceof Boolean ? texto : "'" + texto + "'");
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1fms", nanos / 1_000_000.0);
+    }
+
+    private static final class Entrada {
+        private final long momento;
+        private final String sql;
+        private final Map<Integer, Object> parametros;
+        private final long ejecucionNanos;
+        private final long lecturaNanos;
+        private final long filas;
+
+        private Entrada(long momento, String sql, Map<Integer, Object> parametros, long ejecucionNanos,
+                        long lecturaNanos, long filas) {
+            this.momento = momento;
+            this.sql = sql;
+            this.parametros = parametros;
+            this.ejecucionNanos = ejecucionNanos;
+            this.lecturaNanos = lecturaNanos;
+            this.filas = filas;
+        }
+    }
+}
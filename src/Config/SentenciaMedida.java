@@ -0,0 +1,169 @@
+package Config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+// Envoltorio de un Statement/PreparedStatement prestado por PooledConnection
+// para el log de consultas lentas. Guarda los parámetros de los set*(i, valor),
+// mide la ejecución y, si devuelve un ResultSet, el tiempo pasado en next()
+// (la lectura de filas desde el servidor) y la cantidad de filas.
+// La medición se entrega a RegistroConsultasLentas al cerrar el ResultSet o la
+// sentencia; para executeUpdate/executeBatch, al terminar la ejecución.
+
+final class SentenciaMedida implements InvocationHandler {
+
+    private final Statement real;
+    private final String sqlPreparado;
+    private final RegistroConsultasLentas registro;
+    private final Map<Integer, Object> parametros = new HashMap<>();
+    private Medicion abierta;
+
+    private SentenciaMedida(Statement real, String sqlPreparado, RegistroConsultasLentas registro) {
+        this.real = real;
+        this.sqlPreparado = sqlPreparado;
+        this.registro = registro;
+    }
+
+// Devuelve un proxy del mismo tipo que la sentencia (Statement o PreparedStatement).
+
+    static Statement envolver(Statement real, String sqlPreparado, RegistroConsultasLentas registro) {
+        Class<?> tipo = real instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] { tipo },
+                new SentenciaMedida(real, sqlPreparado, registro));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String nombre = method.getName();
+        if (args != null && args.length >= 2 && nombre.startsWith("set") && args[0] instanceof Integer
+                && method.getDeclaringClass() == PreparedStatement.class) {
+            parametros.put((Integer) args[0], nombre.equals("setNull") ? null : args[1]);
+        } else if (nombre.equals("clearParameters")) {
+            parametros.clear();
+        } else if (nombre.equals("close")) {
+            terminarAbierta();
+        } else if (nombre.equals("equals")) {
+            return proxy == args[0];
+        } else if (nombre.equals("hashCode")) {
+            return System.identityHashCode(proxy);
+        } else if (nombre.startsWith("execute")) {
+            return ejecutar(method, args);
+        }
+        return delegar(method, args);
+    }
+
+    private Object ejecutar(Method method, Object[] args) throws Throwable {
+        terminarAbierta();
+        String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sqlPreparado;
+        long inicio = System.nanoTime();
+        Object resultado = delegar(method, args);
+        long ejecucion = System.nanoTime() - inicio;
+
+        if (resultado instanceof ResultSet rs) {
+            abierta = new Medicion(sql, ejecucion);
+            return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] { ResultSet.class },
+                    new ResultadoMedido(rs, abierta));
+        }
+        long filas = 0;
+        if (resultado instanceof Integer cantidad) {
+            filas = cantidad;
+        } else if (resultado instanceof Long cantidad) {
+            filas = cantidad;
+        } else if (resultado instanceof int[] cantidades) {
+            for (int cantidad : cantidades) {
+                filas += Math.max(cantidad, 0);
+            }
+        } else if (resultado instanceof Boolean) {
+            filas = Math.max(real.getUpdateCount(), 0);
+        }
+        registro.registrar(sql, parametros, ejecucion, 0, filas);
+        return resultado;
+    }
+
+    private void terminarAbierta() {
+        if (abierta != null) {
+            abierta.terminar();
+            abierta = null;
+        }
+    }
+
+    private Object delegar(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(real, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+// Tiempos de una consulta con ResultSet. Se reporta una sola vez.
+
+    private final class Medicion {
+        private final String sql;
+        private final long ejecucionNanos;
+        private long lecturaNanos;
+        private long filas;
+        private boolean terminada;
+
+        private Medicion(String sql, long ejecucionNanos) {
+            this.sql = sql;
+            this.ejecucionNanos = ejecucionNanos;
+        }
+
+        private void terminar() {
+            if (!terminada) {
+                terminada = true;
+                registro.registrar(sql, parametros, ejecucionNanos, lecturaNanos, filas);
+            }
+        }
+    }
+
+    private static final class ResultadoMedido implements InvocationHandler {
+        private final ResultSet real;
+        private final Medicion medicion;
+
+        private ResultadoMedido(ResultSet real, Medicion medicion) {
+            this.real = real;
+            this.medicion = medicion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next": {
+                    long inicio = System.nanoTime();
+                    boolean hay = (Boolean) delegar(method, args);
+                    medicion.lecturaNanos += System.nanoTime() - inicio;
+                    if (hay) {
+                        medicion.filas++;
+                    }
+                    return hay;
+                }
+                case "close":
+                    medicion.terminar();
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            return delegar(method, args);
+        }
+
+        private Object delegar(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(real, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package Config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+// Cache LRU de PreparedStatement asociada a una conexión física del pool.
+// La clave es el texto SQL (las constantes de los DAOs) más el flag de claves
+// generadas. El DAO recibe un envoltorio cuyo close() solo limpia parámetros y
+// deja la sentencia lista para el próximo prepareStatement con el mismo SQL.
+// Solo la usa el hilo que tiene prestada la conexión, por eso no sincroniza.
+
+final class StatementCache {
+
+// Contadores compartidos por todas las caches de un mismo pool.
+
+    static final class Counters {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+    }
+
+    private static final int SIN_CLAVES_GENERADAS = -1;
+
+    private final Connection fisica;
+    private final Counters contadores;
+    private final LinkedHashMap<Key, Entry> entradas;
+
+    StatementCache(Connection fisica, int capacidad, Counters contadores) {
+        this.fisica = fisica;
+        this.contadores = contadores;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() <= capacidad) {
+                    return false;
+                }
+                contadores.evictions.increment();
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    PreparedStatement prepare(String sql) throws SQLException {
+        return prepare(sql, SIN_CLAVES_GENERADAS);
+    }
+
+// Devuelve la sentencia cacheada para ese SQL o la prepara y la cachea.
+// Si la cacheada sigue en uso (dos sentencias iguales abiertas a la vez),
+// la segunda se prepara aparte y se cierra normalmente.
+
+    PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        Key clave = new Key(sql, autoGeneratedKeys);
+        Entry entrada = entradas.get(clave);
+        if (entrada != null && !entrada.enUso && entrada.real.isClosed()) {
+            entradas.remove(clave);
+            entrada = null;
+        }
+        if (entrada != null && !entrada.enUso) {
+            contadores.hits.increment();
+            return entrada.lease();
+        }
+
+        contadores.misses.increment();
+        PreparedStatement real = autoGeneratedKeys == SIN_CLAVES_GENERADAS
+                ? fisica.prepareStatement(sql)
+                : fisica.prepareStatement(sql, autoGeneratedKeys);
+        if (entrada != null) {
+            return real;
+        }
+        entrada = new Entry(real);
+        entradas.put(clave, entrada);
+        return entrada.lease();
+    }
+
+// Al devolver la conexión al pool se recuperan las sentencias que el
+// llamador no cerró.
+
+    void releaseAll() {
+        for (Entry entrada : entradas.values()) {
+            if (entrada.enUso) {
+                entrada.giveBack();
+            }
+        }
+    }
+
+// Cierra todas las sentencias reales (al cerrar la conexión física).
+
+    void closeAll() {
+        Iterator<Entry> it = new ArrayList<>(entradas.values()).iterator();
+        entradas.clear();
+        while (it.hasNext()) {
+            it.next().closeQuietly();
+        }
+    }
+
+    private static final class Key {
+        private final String sql;
+        private final int autoGeneratedKeys;
+
+        private Key(String sql, int autoGeneratedKeys) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key otra = (Key) o;
+            return autoGeneratedKeys == otra.autoGeneratedKeys && sql.equals(otra.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, autoGeneratedKeys);
+        }
+    }
+
+// Sentencia real cacheada. enUso indica que hay un préstamo abierto.
+
+    private static final class Entry {
+        private final PreparedStatement real;
+        private boolean enUso;
+        private boolean desalojada;
+        private int prestamo;
+
+        private Entry(PreparedStatement real) {
+            this.real = real;
+        }
+
+        private PreparedStatement lease() {
+            enUso = true;
+            prestamo++;
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class }, new Lease(this, prestamo));
+        }
+
+        private void giveBack() {
+            enUso = false;
+            if (desalojada) {
+                closeQuietly();
+                return;
+            }
+            try {
+                real.clearParameters();
+                real.clearBatch();
+            } catch (SQLException e) {
+                closeQuietly();
+            }
+        }
+
+        private void evict() {
+            desalojada = true;
+            if (!enUso) {
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                real.close();
+            } catch (SQLException e) {
+                System.err.println("Error al cerrar sentencia cacheada: " + e.getMessage());
+            }
+        }
+    }
+
+// Préstamo de una sentencia cacheada. Cada prepareStatement recibe uno nuevo
+// para que una referencia vieja no opere sobre el préstamo siguiente.
+
+    private static final class Lease implements InvocationHandler {
+        private final Entry entrada;
+        private final int prestamo;
+        private boolean cerrado;
+
+        private Lease(Entry entrada, int prestamo) {
+            this.entrada = entrada;
+            this.prestamo = prestamo;
+        }
+
+// Un préstamo recuperado por releaseAll() queda cerrado aunque nadie llamó close().
+
+        private boolean isCerrado() {
+            return cerrado || prestamo != entrada.prestamo || !entrada.enUso;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!isCerrado()) {
+                        entrada.giveBack();
+                    }
+                    cerrado = true;
+                    return null;
+                case "isClosed":
+                    return isCerrado() || entrada.real.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (isCerrado()) {
+                throw new SQLException("La sentencia ya fue cerrada");
+            }
+            try {
+                return method.invoke(entrada.real, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package Dao;
+
+import Entities.Base;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+// UPDATE mínimo a partir de los campos modificados de una entidad (ver
+// Base.getCamposModificados): solo las columnas que cambiaron, en el orden
+// fijo de "columnas", así los textos de SQL se repiten y la cache de
+// sentencias los reutiliza.
+// Todos los UPDATE son versionados: exigen la versión leída y la incrementan.
+
+final class ActualizacionParcial {
+
+    private ActualizacionParcial() {
+    }
+
+// Columnas a escribir: todas si la entidad no se rastrea (por ejemplo, armada
+// a mano), las modificadas si se rastrea. Vacío = no hay nada que escribir.
+
+    static List<String> columnas(Base entidad, String[] columnas) {
+        if (!entidad.isRastreada()) {
+            return Arrays.asList(columnas);
+        }
+        Set<String> modificados = entidad.getCamposModificados();
+        List<String> aEscribir = new ArrayList<>(modificados.size());
+        for (String columna : columnas) {
+            if (modificados.contains(columna)) {
+                aEscribir.add(columna);
+            }
+        }
+        return aEscribir;
+    }
+
+// "UPDATE tabla SET a = ?, b = ?, version = version + 1 WHERE id = ? AND version = ?"
+
+    static String sql(String tabla, List<String> columnas) {
+        StringBuilder sb = new StringBuilder(64 + columnas.size() * 24).append("UPDATE ").append(tabla).append(" SET ");
+        for (String columna : columnas) {
+            sb.append(columna).append(" = ?, ");
+        }
+        return sb.append("version = version + 1 WHERE id = ? AND version = ?").toString();
+    }
+
+// Excepción para un UPDATE versionado que no tocó filas: si la fila sigue
+// activa es un conflicto (otro la modificó antes); si no, ya no existe y se
+// informa con "mensaje" como antes.
+
+    static SQLException sinFilas(Connection conn, String tabla, Base entidad, String mensaje) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT version FROM " + tabla + " WHERE id = ? AND eliminado = FALSE")) {
+            stmt.setInt(1, entidad.getId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new ConflictoVersionException(tabla, entidad.getId(), entidad.getVersion(), rs.getInt(1));
+                }
+            }
+        }
+        return new SQLException(mensaje);
+    }
+}
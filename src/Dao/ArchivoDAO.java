@@ -0,0 +1,110 @@
+package Dao;
+
+import Config.DatabaseConnection;
+import Config.Metricas;
+import Config.MetricasOperacion;
+import Config.TransactionManager;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Archivo de filas dadas de baja: mueve los producto/codigobarras con
+// eliminado = TRUE y fechaEliminacion anterior a CURRENT_TIMESTAMP menos una
+// retención a las tablas *_archivo. El límite lo calcula la base con su propio
+// reloj, el mismo que escribió fechaEliminacion, así un desfase con el reloj
+// de la JVM no adelanta ni atrasa el archivo. Se recorre por clave (keyset) en lotes chicos: cada lote es un
+// rango de IDs (despuesDeId, hastaId] que se copia y se borra en una
+// transacción corta, así nunca retiene locks sobre muchas filas.
+// Requiere:
+// ALTER TABLE producto ADD fechaEliminacion TIMESTAMP NULL;
+// ALTER TABLE codigobarras ADD fechaEliminacion TIMESTAMP NULL;
+// UPDATE producto SET fechaEliminacion = CURRENT_TIMESTAMP WHERE eliminado = TRUE;
+// UPDATE codigobarras SET fechaEliminacion = CURRENT_TIMESTAMP WHERE eliminado = TRUE;
+// CREATE TABLE producto_archivo LIKE producto;
+// CREATE TABLE codigobarras_archivo LIKE codigobarras;
+// ALTER TABLE producto_archivo ADD fechaArchivado TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+// ALTER TABLE codigobarras_archivo ADD fechaArchivado TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+// CREATE INDEX idx_producto_eliminado ON producto (eliminado, id);
+// CREATE INDEX idx_codigobarras_eliminado ON codigobarras (eliminado, id);
+
+public class ArchivoDAO {
+
+// Tablas archivables. Un código de barras solo se archiva si ningún producto
+// (activo o dado de baja) lo referencia: los que siguen referenciados esperan
+// a que se archive su producto.
+
+    public enum Tabla {
+        PRODUCTO("producto",
+                "id, nombre, marca, categoria, precio, peso, codigoBarras, eliminado, version, fechaEliminacion", ""),
+        CODIGO_BARRAS("codigobarras",
+                "id, tipo, valor, fechaAsignacion, observaciones, eliminado, version, fechaEliminacion",
+                " AND NOT EXISTS (SELECT 1 FROM producto p WHERE p.codigoBarras = codigobarras.id)");
+
+        private final String finDeLoteSql;
+        private final String copiarSql;
+        private final String borrarSql;
+
+        Tabla(String nombre, String columnas, String condicionExtra) {
+            String archivables = " WHERE eliminado = TRUE AND fechaEliminacion < CURRENT_TIMESTAMP - INTERVAL ? SECOND"
+                    + condicionExtra;
+            this.finDeLoteSql = "SELECT MAX(id) FROM (SELECT id FROM " + nombre + archivables +
+                    " AND id > ? ORDER BY id LIMIT ?) lote";
+            this.copiarSql = "INSERT INTO " + nombre + "_archivo (" + columnas + ") SELECT " + columnas +
+                    " FROM " + nombre + archivables + " AND id > ? AND id <= ?";
+            this.borrarSql = "DELETE FROM " + nombre + archivables + " AND id > ? AND id <= ?";
+        }
+    }
+
+// Métricas por operación (latencia, llamadas, errores, filas), publicadas por JMX.
+
+    private static final MetricasOperacion M_FIN_DE_LOTE = Metricas.operacion("ArchivoDAO", "finDeLote");
+    private static final MetricasOperacion M_ARCHIVAR_RANGO = Metricas.operacion("ArchivoDAO", "archivarRango");
+
+// ID más alto de las próximas "tamanio" filas archivables (dadas de baja hace
+// más de retencionSegundos) después de despuesDeId, o 0 si no queda ninguna.
+
+    public int finDeLote(Tabla tabla, long retencionSegundos, int despuesDeId, int tamanio) throws SQLException {
+        return M_FIN_DE_LOTE.medir(() -> {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(tabla.finDeLoteSql)) {
+                stmt.setLong(1, retencionSegundos);
+                stmt.setInt(2, despuesDeId);
+                stmt.setInt(3, tamanio);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            }
+        });
+    }
+
+// Copia a la tabla de archivo y borra las filas archivables con ID en
+// (despuesDeId, hastaId], en una sola transacción. Devuelve las filas movidas.
+// Si lo copiado y lo borrado no coinciden, deshace todo.
+
+    public int archivarRango(Tabla tabla, long retencionSegundos, int despuesDeId, int hastaId) throws SQLException {
+        return M_ARCHIVAR_RANGO.medir(() -> {
+            try (TransactionManager tx = new TransactionManager(DatabaseConnection.getConnection())) {
+                tx.startTransaction();
+                int copiadas = ejecutarRango(tx.getConnection(), tabla.copiarSql, retencionSegundos, despuesDeId, hastaId);
+                int borradas = ejecutarRango(tx.getConnection(), tabla.borrarSql, retencionSegundos, despuesDeId, hastaId);
+                if (copiadas != borradas) {
+                    throw new SQLException("Archivo de " + tabla + " inconsistente en IDs (" + despuesDeId + ", "
+                            + hastaId + "]: " + copiadas + " copiadas y " + borradas + " borradas");
+                }
+                tx.commit();
+                return borradas;
+            }
+        });
+    }
+
+    private static int ejecutarRango(Connection conn, String sql, long retencionSegundos, int despuesDeId,
+            int hastaId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, retencionSegundos);
+            stmt.setInt(2, despuesDeId);
+            stmt.setInt(3, hastaId);
+            return stmt.executeUpdate();
+        }
+    }
+}
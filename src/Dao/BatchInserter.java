@@ -0,0 +1,59 @@
+package Dao;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import Entities.Base;
+
+// Ejecuta un INSERT preparado en lotes JDBC (addBatch/executeBatch) y asigna
+// a cada entidad el ID generado, en el mismo orden en que se agregó al lote.
+
+final class BatchInserter {
+
+// Carga los parámetros de una entidad en el PreparedStatement del INSERT.
+
+    @FunctionalInterface
+    interface ParameterSetter<T> {
+        void cargar(PreparedStatement stmt, T entidad) throws SQLException;
+    }
+
+    private BatchInserter() {
+    }
+
+// El PreparedStatement debe haberse creado con Statement.RETURN_GENERATED_KEYS.
+
+    static <T extends Base> void insertar(PreparedStatement stmt, List<T> entidades, int tamanioLote,
+                                          ParameterSetter<T> setter) throws SQLException {
+        if (tamanioLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor a 0");
+        }
+
+        int desde = 0;
+        for (int i = 0; i < entidades.size(); i++) {
+            setter.cargar(stmt, entidades.get(i));
+            stmt.addBatch();
+
+            boolean loteCompleto = (i + 1 - desde) == tamanioLote;
+            if (loteCompleto || i == entidades.size() - 1) {
+                stmt.executeBatch();
+                asignarIds(stmt, entidades.subList(desde, i + 1));
+                desde = i + 1;
+            }
+        }
+    }
+
+// Lee las claves generadas por el último executeBatch y las asigna en orden.
+
+    private static <T extends Base> void asignarIds(PreparedStatement stmt, List<T> lote) throws SQLException {
+        try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+            for (T entidad : lote) {
+                if (!generatedKeys.next()) {
+                    throw new SQLException("La inserción por lote falló: se esperaban " + lote.size()
+                            + " IDs generados");
+                }
+                entidad.setId(generatedKeys.getInt(1));
+            }
+        }
+    }
+}
@@ -2,10 +2,16 @@ package Dao;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 import Config.DatabaseConnection;
+import Config.Metricas;
+import Config.MetricasOperacion;
+import Config.TransactionManager;
 import Entities.CodigoBarras;
-import java.time.LocalDate;
 
 // DAO de CodigoBarras: CRUD, soft delete y consultas.
  
@@ -13,15 +19,24 @@ public class CodigoBarrasDAO implements GenericDAO<CodigoBarras> {
    
     private static final String INSERT_SQL = "INSERT INTO codigobarras (tipo, valor, fechaAsignacion, observaciones) VALUES (?, ?, ?, ?)";
 
-// UPDATE de CodigoBarras por ID.
+// UPDATE de CodigoBarras por ID y versión (concurrencia optimista). Requiere
+// la columna: ALTER TABLE codigobarras ADD version INT NOT NULL DEFAULT 0;
 
      
-    private static final String UPDATE_SQL = "UPDATE codigobarras SET tipo = ?, valor = ?, fechaAsignacion = ?, observaciones = ?  WHERE id = ?";
+    private static final String UPDATE_SQL = "UPDATE codigobarras SET tipo = ?, valor = ?, fechaAsignacion = ?, observaciones = ?, " +
+            "version = version + 1 WHERE id = ? AND version = ?";
 
-// Soft delete: marca eliminado=TRUE.
+// Columnas de UPDATE_SQL, en orden. Si el CodigoBarras se cargó de la base,
+// actualizar escribe solo las que cambiaron (ver ActualizacionParcial).
+
+    private static final String[] COLUMNAS_UPDATE = { "tipo", "valor", "fechaAsignacion", "observaciones" };
+
+// Soft delete: marca eliminado=TRUE y guarda cuándo (la primera vez), para que
+// ArchivoDAO mueva la fila al archivo pasada la retención.
 
     
-    private static final String DELETE_SQL = "UPDATE codigobarras SET eliminado = TRUE WHERE id = ?";
+    private static final String DELETE_SQL = "UPDATE codigobarras SET eliminado = TRUE, " +
+            "fechaEliminacion = COALESCE(fechaEliminacion, CURRENT_TIMESTAMP) WHERE id = ?";
 
 // SELECT por ID de CodigoBarras activo.
 
@@ -31,30 +46,93 @@ public class CodigoBarrasDAO implements GenericDAO<CodigoBarras> {
 
     private static final String SELECT_ALL_SQL = "SELECT * FROM codigobarras WHERE eliminado = FALSE";
 
+// SELECT por valor escaneado. Requiere índice sobre valor:
+// CREATE INDEX idx_codigobarras_valor ON codigobarras (valor);
+
+    private static final String SELECT_BY_VALOR_SQL = "SELECT * FROM codigobarras WHERE valor = ? AND eliminado = FALSE";
+
+// SELECT de varios CodigoBarras activos por ID (ver ConsultaPorIds).
+
+    private static final ConsultaPorIds SELECT_BY_IDS =
+            new ConsultaPorIds("SELECT * FROM codigobarras WHERE eliminado = FALSE AND id IN ");
+
+// Métricas por operación (latencia, llamadas, errores, filas), publicadas por JMX.
+
+    private static final MetricasOperacion M_INSERTAR = Metricas.operacion("CodigoBarrasDAO", "insertar");
+    private static final MetricasOperacion M_INSERT_TX = Metricas.operacion("CodigoBarrasDAO", "insertTx");
+    private static final MetricasOperacion M_INSERTAR_LOTE = Metricas.operacion("CodigoBarrasDAO", "insertarLote");
+    private static final MetricasOperacion M_INSERTAR_LOTE_TX = Metricas.operacion("CodigoBarrasDAO", "insertarLoteTx");
+    private static final MetricasOperacion M_ACTUALIZAR = Metricas.operacion("CodigoBarrasDAO", "actualizar");
+    private static final MetricasOperacion M_ACTUALIZAR_TX = Metricas.operacion("CodigoBarrasDAO", "actualizarTx");
+    private static final MetricasOperacion M_ELIMINAR = Metricas.operacion("CodigoBarrasDAO", "eliminar");
+    private static final MetricasOperacion M_ELIMINAR_TX = Metricas.operacion("CodigoBarrasDAO", "eliminarTx");
+    private static final MetricasOperacion M_GET_BY_ID = Metricas.operacion("CodigoBarrasDAO", "getById");
+    private static final MetricasOperacion M_BUSCAR_POR_VALOR = Metricas.operacion("CodigoBarrasDAO", "buscarPorValor");
+    private static final MetricasOperacion M_GET_BY_IDS = Metricas.operacion("CodigoBarrasDAO", "getByIds");
+    private static final MetricasOperacion M_GET_ALL = Metricas.operacion("CodigoBarrasDAO", "getAll");
+    private static final MetricasOperacion M_STREAM_ALL = Metricas.operacion("CodigoBarrasDAO", "streamAll");
+
 // Inserta CodigoBarras con ID generado (conexión propia).
 
     
     @Override
     public void insertar(CodigoBarras codigoBarras) throws SQLException {
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+        M_INSERTAR.medir(1, () -> {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
-            setCodigoBarrasParameters(stmt, codigoBarras);
-            stmt.executeUpdate();
+                setCodigoBarrasParameters(stmt, codigoBarras);
+                stmt.executeUpdate();
 
-            setGeneratedId(stmt, codigoBarras);
-        }
+                setGeneratedId(stmt, codigoBarras);
+            }
+        });
     }
 
 // Inserta CodigoBarras dentro de una transacción existente.
 
     @Override
     public void insertTx(CodigoBarras codigobarras, Connection conn) throws Exception {
-        try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
-            setCodigoBarrasParameters(stmt, codigobarras);
-            stmt.executeUpdate();
-            setGeneratedId(stmt, codigobarras);
+        M_INSERT_TX.medir(1, () -> {
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                setCodigoBarrasParameters(stmt, codigobarras);
+                stmt.executeUpdate();
+                setGeneratedId(stmt, codigobarras);
+            }
+        });
+    }
+
+// Inserta CodigoBarras en lotes con transacción propia. Asigna los IDs generados.
+
+    @Override
+    public void insertarLote(List<CodigoBarras> codigosBarras, int tamanioLote) throws SQLException {
+        if (codigosBarras == null) {
+            throw new IllegalArgumentException("La lista de códigos de barras no puede ser null");
         }
+        M_INSERTAR_LOTE.medir(codigosBarras.size(), () -> {
+            try (TransactionManager tx = new TransactionManager(DatabaseConnection.getConnection())) {
+                tx.startTransaction();
+                insertarLoteTx(codigosBarras, tx.getConnection(), tamanioLote);
+                tx.commit();
+            }
+        });
+    }
+
+// Inserta CodigoBarras en lotes dentro de una transacción existente.
+
+    @Override
+    public void insertarLoteTx(List<CodigoBarras> codigosBarras, Connection conn, int tamanioLote) throws SQLException {
+        if (codigosBarras == null) {
+            throw new IllegalArgumentException("La lista de códigos de barras no puede ser null");
+        }
+        if (codigosBarras.isEmpty()) {
+            return;
+        }
+        M_INSERTAR_LOTE_TX.medir(codigosBarras.size(), () -> {
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                BatchInserter.insertar(stmt, codigosBarras, tamanioLote, this::setCodigoBarrasParameters);
+            }
+        });
     }
 
 // Actualiza CodigoBarras por ID. Lanza error si no existe.
@@ -62,20 +140,43 @@ public class CodigoBarrasDAO implements GenericDAO<CodigoBarras> {
     
     @Override
     public void actualizar(CodigoBarras codigoBarras) throws SQLException {
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
-
-            stmt.setString(1, codigoBarras.getTipo());
-            stmt.setString(2, codigoBarras.getValor());
-            stmt.setDate(3, Date.valueOf(codigoBarras.getFechaAsignacion()));
-            stmt.setString(4, codigoBarras.getObservaciones());
-            stmt.setInt(5, codigoBarras.getId());
-
-            int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected == 0) {
-                throw new SQLException("No se pudo actualizar el codigobarras con ID: " + codigoBarras.getId());
+        M_ACTUALIZAR.medir(1, () -> {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                actualizarTx(codigoBarras, conn);
             }
+            codigoBarras.limpiarModificados();
+        });
+    }
+
+// Actualiza CodigoBarras dentro de una transacción existente.
+
+    @Override
+    public void actualizarTx(CodigoBarras codigoBarras, Connection conn) throws SQLException {
+        List<String> columnas = ActualizacionParcial.columnas(codigoBarras, COLUMNAS_UPDATE);
+        if (columnas.isEmpty()) {
+            return;
         }
+        String sql = columnas.size() == COLUMNAS_UPDATE.length
+                ? UPDATE_SQL : ActualizacionParcial.sql("codigobarras", columnas);
+
+        M_ACTUALIZAR_TX.medir(1, () -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                int parametro = 1;
+                for (String columna : columnas) {
+                    setColumna(stmt, parametro++, columna, codigoBarras);
+                }
+                stmt.setInt(parametro++, codigoBarras.getId());
+                stmt.setInt(parametro, codigoBarras.getVersion());
+
+                int rowsAffected = stmt.executeUpdate();
+                if (rowsAffected == 0) {
+                    throw ActualizacionParcial.sinFilas(conn, "codigobarras", codigoBarras,
+                            "No se pudo actualizar el codigobarras con ID: " + codigoBarras.getId());
+                }
+                codigoBarras.setVersion(codigoBarras.getVersion() + 1);
+            }
+        });
     }
 
 // Soft delete de CodigoBarras por ID.
@@ -83,16 +184,28 @@ public class CodigoBarrasDAO implements GenericDAO<CodigoBarras> {
     
     @Override
     public void eliminar(int id) throws SQLException {
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
+        M_ELIMINAR.medir(1, () -> {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                eliminarTx(id, conn);
+            }
+        });
+    }
+
+// Soft delete de CodigoBarras dentro de una transacción existente.
+
+    @Override
+    public void eliminarTx(int id, Connection conn) throws SQLException {
+        M_ELIMINAR_TX.medir(1, () -> {
+            try (PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
 
-            stmt.setInt(1, id);
-            int rowsAffected = stmt.executeUpdate();
+                stmt.setInt(1, id);
+                int rowsAffected = stmt.executeUpdate();
 
-            if (rowsAffected == 0) {
-                throw new SQLException("No se encontró codigobarras con ID: " + id);
+                if (rowsAffected == 0) {
+                    throw new SQLException("No se encontró codigobarras con ID: " + id);
+                }
             }
-        }
+        });
     }
 
 // Obtiene CodigoBarras por ID (solo activos).
@@ -100,18 +213,53 @@ public class CodigoBarrasDAO implements GenericDAO<CodigoBarras> {
     
     @Override
     public CodigoBarras getById(int id) throws SQLException {
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(SELECT_BY_ID_SQL)) {
+        return M_GET_BY_ID.medir(() -> {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(SELECT_BY_ID_SQL)) {
 
-            stmt.setInt(1, id);
+                stmt.setInt(1, id);
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSetToCodigoBarras(rs);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return CodigoBarrasRowMapper.para(rs).mapRow(rs);
+                    }
                 }
             }
+            return null;
+        });
+    }
+
+// Obtiene varios CodigoBarras activos por ID con consultas IN por bloques.
+
+    @Override
+    public Map<Integer, CodigoBarras> getByIds(Collection<Integer> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return new HashMap<>();
         }
-        return null;
+        return M_GET_BY_IDS.medir(() -> {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                return SELECT_BY_IDS.cargar(conn, ids, CodigoBarrasRowMapper::para, CodigoBarras::getId);
+            }
+        });
+    }
+
+// Obtiene CodigoBarras activo por su valor (lookup indexado, sin recorrer la tabla).
+
+    public CodigoBarras buscarPorValor(String valor) throws SQLException {
+        return M_BUSCAR_POR_VALOR.medir(() -> {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(SELECT_BY_VALOR_SQL)) {
+
+                stmt.setString(1, valor);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return CodigoBarrasRowMapper.para(rs).mapRow(rs);
+                    }
+                }
+            }
+            return null;
+        });
     }
 
  // Devuelve todos los CodigoBarras activos.
@@ -119,18 +267,31 @@ public class CodigoBarrasDAO implements GenericDAO<CodigoBarras> {
     
     @Override
     public List<CodigoBarras> getAll() throws SQLException {
-        List<CodigoBarras> codigosBarras = new ArrayList<>();
+        return M_GET_ALL.medir(() -> {
+            List<CodigoBarras> codigosBarras = new ArrayList<>();
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(SELECT_ALL_SQL)) {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(SELECT_ALL_SQL)) {
 
-            while (rs.next()) {
-                codigosBarras.add(mapResultSetToCodigoBarras(rs));
+                CodigoBarrasRowMapper mapper = CodigoBarrasRowMapper.para(rs);
+                while (rs.next()) {
+                    codigosBarras.add(mapper.mapRow(rs));
+                }
             }
-        }
 
-        return codigosBarras;
+            return codigosBarras;
+        });
+    }
+
+// Recorre los CodigoBarras activos de a uno, con fetch size (sin ArrayList).
+
+    @Override
+    public Stream<CodigoBarras> streamAll() throws SQLException {
+        return M_STREAM_ALL.medir(() -> {
+            return ResultSetStream.abrir(DatabaseConnection.getConnection(), SELECT_ALL_SQL,
+                    ResultSetStream.FETCH_SIZE_DEFAULT, CodigoBarrasRowMapper::para);
+        });
     }
 
 // Carga parámetros de CodigoBarras en PreparedStatement.
@@ -143,6 +304,19 @@ public class CodigoBarrasDAO implements GenericDAO<CodigoBarras> {
         stmt.setString(4, codigoBarras.getObservaciones());
     }
 
+// Carga una columna del UPDATE (ver COLUMNAS_UPDATE).
+
+    private void setColumna(PreparedStatement stmt, int parameterIndex, String columna, CodigoBarras codigoBarras)
+            throws SQLException {
+        switch (columna) {
+            case "tipo" -> stmt.setString(parameterIndex, codigoBarras.getTipo());
+            case "valor" -> stmt.setString(parameterIndex, codigoBarras.getValor());
+            case "fechaAsignacion" -> stmt.setDate(parameterIndex, Date.valueOf(codigoBarras.getFechaAsignacion()));
+            case "observaciones" -> stmt.setString(parameterIndex, codigoBarras.getObservaciones());
+            default -> throw new IllegalArgumentException("Columna desconocida: " + columna);
+        }
+    }
+
 // Obtiene y asigna ID generado tras INSERT.
 
     private void setGeneratedId(PreparedStatement stmt, CodigoBarras codigoBarras) throws SQLException {
@@ -154,17 +328,4 @@ public class CodigoBarrasDAO implements GenericDAO<CodigoBarras> {
             }
         }
     }
-
-// Crea CodigoBarras desde ResultSet.
-
-    
-    private CodigoBarras mapResultSetToCodigoBarras(ResultSet rs) throws SQLException {
-        return new CodigoBarras(
-            rs.getInt("id"),
-            rs.getString("valor"),
-            rs.getString("tipo"),    
-            rs.getObject("fechaAsignacion", LocalDate.class), 
-            rs.getString("observaciones")
-        );
-    }
 }
@@ -0,0 +1,47 @@
+package Dao;
+
+import Entities.CodigoBarras;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+// Mapea filas de codigobarras por posición (resueltas una vez con para(rs)).
+// El CodigoBarras sale rastreando cambios (Base.limpiarModificados).
+
+final class CodigoBarrasRowMapper implements RowMapper<CodigoBarras> {
+
+    private final int id;
+    private final int valor;
+    private final int tipo;
+    private final int fechaAsignacion;
+    private final int observaciones;
+    private final int version;
+
+    private CodigoBarrasRowMapper(int[] indices) {
+        this.id = indices[0];
+        this.valor = indices[1];
+        this.tipo = indices[2];
+        this.fechaAsignacion = indices[3];
+        this.observaciones = indices[4];
+        this.version = indices[5];
+    }
+
+    static CodigoBarrasRowMapper para(ResultSet rs) throws SQLException {
+        return new CodigoBarrasRowMapper(Columnas.resolver(rs, "id", "valor", "tipo", "fechaAsignacion",
+                "observaciones", "version"));
+    }
+
+    @Override
+    public CodigoBarras mapRow(ResultSet rs) throws SQLException {
+        CodigoBarras codigoBarras = new CodigoBarras(
+            rs.getInt(id),
+            rs.getString(valor),
+            rs.getString(tipo),
+            rs.getObject(fechaAsignacion, LocalDate.class),
+            rs.getString(observaciones)
+        );
+        codigoBarras.setVersion(rs.getInt(version));
+        codigoBarras.limpiarModificados();
+        return codigoBarras;
+    }
+}
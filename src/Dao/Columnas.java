@@ -0,0 +1,37 @@
+package Dao;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Resuelve etiquetas de columna a posiciones (1..n) leyendo los metadatos del
+// ResultSet una sola vez. Igual que el driver, no distingue mayúsculas y una
+// etiqueta repetida resuelve a la primera; por eso las consultas con JOIN
+// usan alias sin ambigüedad (cb_id).
+
+final class Columnas {
+
+    private Columnas() {
+    }
+
+    static int[] resolver(ResultSet rs, String... etiquetas) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        Map<String, Integer> posiciones = new HashMap<>();
+        for (int i = meta.getColumnCount(); i >= 1; i--) {
+            posiciones.put(meta.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+
+        int[] indices = new int[etiquetas.length];
+        for (int i = 0; i < etiquetas.length; i++) {
+            Integer posicion = posiciones.get(etiquetas[i].toLowerCase(Locale.ROOT));
+            if (posicion == null) {
+                throw new SQLException("Columna no encontrada en el resultado: " + etiquetas[i]);
+            }
+            indices[i] = posicion;
+        }
+        return indices;
+    }
+}
@@ -0,0 +1,42 @@
+package Dao;
+
+import java.sql.SQLException;
+
+// Un UPDATE versionado no encontró la versión esperada: otro escritor modificó
+// la fila después de que se leyó. No se escribió nada; quien llama puede
+// releer la entidad y reintentar (ver Service.ReintentoOptimista).
+
+public class ConflictoVersionException extends SQLException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String tabla;
+    private final int id;
+    private final int versionEsperada;
+    private final int versionActual;
+
+    public ConflictoVersionException(String tabla, int id, int versionEsperada, int versionActual) {
+        super("La fila de " + tabla + " con ID " + id + " fue modificada por otro usuario (versión "
+                + versionActual + ", se esperaba " + versionEsperada + ")");
+        this.tabla = tabla;
+        this.id = id;
+        this.versionEsperada = versionEsperada;
+        this.versionActual = versionActual;
+    }
+
+    public String getTabla() {
+        return tabla;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getVersionEsperada() {
+        return versionEsperada;
+    }
+
+    public int getVersionActual() {
+        return versionActual;
+    }
+}
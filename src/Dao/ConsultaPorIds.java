@@ -0,0 +1,77 @@
+package Dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+// Carga varias entidades por ID con consultas "... id IN (?, ?, ...)" en vez
+// de un getById por ID. Los IDs se parten en bloques de hasta TAMANIO_MAXIMO
+// y cada bloque se completa repitiendo su último ID hasta el tamaño fijo más
+// cercano (1, 8, 32 o 128). Así solo existen cuatro textos de SQL por
+// consulta y la cache de sentencias del pool los reutiliza.
+// Todos los bloques usan la misma conexión.
+
+final class ConsultaPorIds {
+
+    private static final int[] TAMANIOS = { 1, 8, 32, 128 };
+    static final int TAMANIO_MAXIMO = TAMANIOS[TAMANIOS.length - 1];
+
+    private final String[] sqlPorTamanio = new String[TAMANIOS.length];
+
+// sqlAntesDeIn termina justo antes de la lista, por ejemplo
+// "SELECT ... WHERE eliminado = FALSE AND id IN ".
+
+    ConsultaPorIds(String sqlAntesDeIn) {
+        for (int i = 0; i < TAMANIOS.length; i++) {
+            StringBuilder sb = new StringBuilder(sqlAntesDeIn).append('(');
+            for (int j = 0; j < TAMANIOS[i]; j++) {
+                sb.append(j == 0 ? "?" : ", ?");
+            }
+            sqlPorTamanio[i] = sb.append(')').toString();
+        }
+    }
+
+// Devuelve las entidades encontradas indexadas por ID. Los IDs repetidos se
+// consultan una vez; los que no existen no aparecen en el mapa.
+
+    <T> Map<Integer, T> cargar(Connection conn, Collection<Integer> ids, RowMapper.Fabrica<T> fabrica,
+                               ToIntFunction<T> idDe) throws SQLException {
+        Set<Integer> pendientes = new LinkedHashSet<>(ids);
+        Map<Integer, T> resultado = new HashMap<>(pendientes.size() * 4 / 3 + 1);
+        Iterator<Integer> it = pendientes.iterator();
+        int[] bloque = new int[TAMANIO_MAXIMO];
+
+        while (it.hasNext()) {
+            int cantidad = 0;
+            while (cantidad < TAMANIO_MAXIMO && it.hasNext()) {
+                bloque[cantidad++] = it.next();
+            }
+            int tamanio = 0;
+            while (TAMANIOS[tamanio] < cantidad) {
+                tamanio++;
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(sqlPorTamanio[tamanio])) {
+                for (int i = 0; i < TAMANIOS[tamanio]; i++) {
+                    stmt.setInt(i + 1, bloque[Math.min(i, cantidad - 1)]);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    RowMapper<T> mapper = fabrica.para(rs);
+                    while (rs.next()) {
+                        T entidad = mapper.mapRow(rs);
+                        resultado.put(idDe.applyAsInt(entidad), entidad);
+                    }
+                }
+            }
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,66 @@
+package Dao;
+
+import Config.DatabaseConnection;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Lectura del catálogo completo para exportarlo. No arma entidades: entrega al
+// consumidor el ResultSet posicionado en cada fila, así la memoria usada no
+// depende de la cantidad de productos.
+
+public class ExportacionDAO {
+
+// Columnas (por posición) de cada fila que recibe el consumidor.
+
+    public static final int COL_ID = 1;
+    public static final int COL_NOMBRE = 2;
+    public static final int COL_MARCA = 3;
+    public static final int COL_CATEGORIA = 4;
+    public static final int COL_PRECIO = 5;
+    public static final int COL_PESO = 6;
+    public static final int COL_CB_ID = 7;
+    public static final int COL_CB_TIPO = 8;
+    public static final int COL_CB_VALOR = 9;
+    public static final int COL_CB_FECHA = 10;
+    public static final int COL_CB_OBSERVACIONES = 11;
+
+// Productos activos con su código de barras (si tiene uno activo), en orden
+// de id. Un código dado de baja no se exporta, igual que en ModoCarga.
+
+    private static final String EXPORT_SQL = "SELECT p.id, p.nombre, p.marca, p.categoria, p.precio, p.peso, " +
+            "cb.id, cb.tipo, cb.valor, cb.fechaAsignacion, cb.observaciones " +
+            "FROM producto p LEFT JOIN codigobarras cb ON p.codigobarras = cb.id AND cb.eliminado = FALSE " +
+            "WHERE p.eliminado = FALSE ORDER BY p.id";
+
+// Filas que el driver trae por viaje; el resultado nunca está entero en memoria.
+
+    private static final int FETCH_SIZE = 1000;
+
+    @FunctionalInterface
+    public interface ConsumidorFila {
+
+        void aceptar(ResultSet rs) throws Exception;
+    }
+
+// Recorre el catálogo llamando al consumidor una vez por fila. Devuelve las filas leídas.
+
+    public long recorrerCatalogo(ConsumidorFila consumidor) throws Exception {
+        long filas = 0;
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(EXPORT_SQL,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumidor.aceptar(rs);
+                    filas++;
+                }
+            }
+        } catch (SQLException e) {
+            throw new Exception("Error al leer el catálogo para exportar: " + e.getMessage(), e);
+        }
+        return filas;
+    }
+}
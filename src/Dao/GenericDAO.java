@@ -1,12 +1,19 @@
 package Dao;
 
 import java.sql.Connection;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 // Interfaz base para DAOs genéricos. Define operaciones CRUD comunes.
 
 
 public interface GenericDAO<T> {
+
+// Cantidad de filas por executeBatch cuando el llamador no indica otra.
+
+    int TAMANIO_LOTE_DEFAULT = 1000;
     
 
 // Inserta la entidad en la base de datos (sin transacción externa).
@@ -18,20 +25,47 @@ public interface GenericDAO<T> {
     
     void insertTx(T entidad, Connection conn) throws Exception;
 
+// Inserta las entidades en lotes JDBC, en una sola transacción propia.
+// Asigna a cada entidad su ID generado.
+
+    void insertarLote(List<T> entidades, int tamanioLote) throws Exception;
+
+// Inserta las entidades en lotes JDBC usando la transacción/conexión existente.
+
+    void insertarLoteTx(List<T> entidades, Connection conn, int tamanioLote) throws Exception;
+
 // Actualiza los datos de la entidad en la base de datos.
     
     void actualizar(T entidad)throws Exception;
 
+// Actualiza la entidad usando la transacción/conexión existente.
+
+    void actualizarTx(T entidad, Connection conn) throws Exception;
+
 // Elimina la entidad por ID.
    
     void eliminar(int id)throws Exception;
 
+// Elimina la entidad por ID usando la transacción/conexión existente.
+
+    void eliminarTx(int id, Connection conn) throws Exception;
+
  // Obtiene una entidad por su ID.
    
     T getById(int id)throws Exception;
 
+// Obtiene varias entidades en pocas consultas (IN por bloques), indexadas por
+// ID. Los IDs inexistentes o eliminados no aparecen en el mapa.
+
+    Map<Integer, T> getByIds(Collection<Integer> ids) throws Exception;
+
 // Devuelve todas las entidades de la tabla.
 
     List<T> getAll()throws Exception;
 
+// Recorre todas las entidades fila por fila sin materializar la lista.
+// El Stream retiene una conexión hasta agotarse o cerrarse: usar try-with-resources.
+
+    Stream<T> streamAll() throws Exception;
+
 }
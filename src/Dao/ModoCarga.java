@@ -0,0 +1,16 @@
+package Dao;
+
+// Cómo cargan las consultas de ProductoDAO el CodigoBarras asociado:
+// - EAGER: en la misma consulta, con LEFT JOIN a codigobarras.
+// - LAZY: sin JOIN; el Producto guarda la FK y el código se lee con
+//   CodigoBarrasDAO.getById la primera vez que se pide getCodBarras().
+//   Conviene cuando el llamador no mira el código (listados, índices).
+// En los dos modos un código dado de baja (eliminado = TRUE) no se ve: el JOIN
+// lo descarta y getById no lo encuentra, así que getCodBarras() da null y
+// getCodigoBarrasId() 0. La única diferencia es que en LAZY, antes de la
+// carga, getCodigoBarrasId() devuelve la FK tal como está en la fila.
+
+public enum ModoCarga {
+    EAGER,
+    LAZY
+}
@@ -0,0 +1,35 @@
+package Dao;
+
+import java.util.Collections;
+import java.util.List;
+
+// Página de resultados de una consulta con paginación por clave (keyset).
+// siguienteCursor es el ID del último elemento: se pasa como "despuesDeId"
+// para pedir la página siguiente. Vale 0 cuando no quedan más resultados.
+
+public class Pagina<T> {
+
+    private final List<T> items;
+    private final int siguienteCursor;
+
+    public Pagina(List<T> items, int siguienteCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public int getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public boolean hayMas() {
+        return siguienteCursor > 0;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+}
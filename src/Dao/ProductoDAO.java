@@ -1,13 +1,20 @@
 package Dao;
 
 import Entities.Producto;
+import Entities.ProductoResumen;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
 import Config.DatabaseConnection;
-import Entities.CodigoBarras;
-import java.time.LocalDate;
+import Config.Metricas;
+import Config.MetricasOperacion;
+import Config.TransactionManager;
 
 //DAO de Producto: gestiona CRUD, soft delete y consultas con JOIN a CodigoBarras.
 //Usa PreparedStatement, soporta transacciones y carga la relación Producto–Código.
@@ -20,43 +27,108 @@ public class ProductoDAO implements GenericDAO<Producto> {
     
     private static final String INSERT_SQL = "INSERT INTO producto (nombre, marca, categoria, precio, peso, codigoBarras) VALUES (?, ?, ?, ?, ?, ? )";
 
-//UPDATE de Producto por ID.
+//UPDATE de Producto por ID y versión (concurrencia optimista). Requiere la
+//columna: ALTER TABLE producto ADD version INT NOT NULL DEFAULT 0;
 
-    private static final String UPDATE_SQL = "UPDATE producto SET nombre = ?, marca = ?, categoria = ?, precio = ?, peso = ?, codigoBarras = ? WHERE id = ?";
+    private static final String UPDATE_SQL = "UPDATE producto SET nombre = ?, marca = ?, categoria = ?, precio = ?, peso = ?, codigoBarras = ?, " +
+            "version = version + 1 WHERE id = ? AND version = ?";
 
-// Soft delete: marca eliminado=TRUE.
+// Columnas de UPDATE_SQL, en orden. Si el Producto se cargó de la base,
+// actualizar escribe solo las que cambiaron (ver ActualizacionParcial).
 
-    private static final String DELETE_SQL = "UPDATE producto SET eliminado = TRUE WHERE id = ?";
+    private static final String[] COLUMNAS_UPDATE = { "nombre", "marca", "categoria", "precio", "peso", "codigoBarras" };
 
-// SELECT por ID con LEFT JOIN a CodigoBarras. Solo productos activos.
+// Soft delete: marca eliminado=TRUE y guarda cuándo (la primera vez), para que
+// ArchivoDAO mueva la fila al archivo pasada la retención.
 
-    
-    
-    private static final String SELECT_BY_ID_SQL = "SELECT p.id, p.nombre, p.marca, p.categoria, p.precio, p.peso, p.codigoBarras , " +
-            "cb.id AS id, cb.tipo, cb.valor, cb.fechaAsignacion, cb.observaciones  " +
-            "FROM producto p LEFT JOIN codigobarras cb ON p.codigobarras = cb.id " +
-            "WHERE p.id = ? AND p.eliminado = FALSE";
+    private static final String DELETE_SQL = "UPDATE producto SET eliminado = TRUE, " +
+            "fechaEliminacion = COALESCE(fechaEliminacion, CURRENT_TIMESTAMP) WHERE id = ?";
 
-    
-// SELECT de todos los productos activos con JOIN a CodigoBarras.
-    
-  
-    private static final String SELECT_ALL_SQL = "SELECT p.id, p.nombre, p.marca, p.categoria, p.precio, p.peso, p.codigoBarras , " +
-            "cb.id AS id, cb.tipo, cb.valor , cb.fechaAsignacion, cb.observaciones  " +
-            "FROM producto p LEFT JOIN codigobarras cb ON p.codigobarras = cb.id " +
-            "WHERE p.eliminado = FALSE";
+// Columnas y JOIN comunes a todos los SELECT. El id y la versión del código
+// van como cb_id y cb_version para no pisar los de p (ver ProductoRowMapper).
+
+    private static final String SELECT_FROM = "SELECT p.id, p.nombre, p.marca, p.categoria, p.precio, p.peso, p.codigoBarras, p.version, " +
+            "cb.id AS cb_id, cb.tipo, cb.valor, cb.fechaAsignacion, cb.observaciones, cb.version AS cb_version " +
+            "FROM producto p LEFT JOIN codigobarras cb ON p.codigobarras = cb.id AND cb.eliminado = FALSE ";
+
+// Variante sin JOIN para ModoCarga.LAZY: solo la FK del código.
+
+    private static final String SELECT_LAZY_FROM = "SELECT p.id, p.nombre, p.marca, p.categoria, p.precio, p.peso, p.codigoBarras, p.version " +
+            "FROM producto p ";
+
+// Por ID. Solo productos activos.
+
+    private static final String WHERE_BY_ID = "WHERE p.id = ? AND p.eliminado = FALSE";
+
+// Todos los productos activos.
+
+    private static final String WHERE_ALL = "WHERE p.eliminado = FALSE";
 
 // Búsqueda por nombre o marca usando LIKE.
 
-    
-    private static final String SEARCH_BY_NAME_SQL = "SELECT p.id, p.nombre, p.marca, p.categoria, p.precio, p.peso, p.codigoBarras , " +
-            "cb.id AS id, cb.tipo, cb.valor , cb.fechaAsignacion, cb.observaciones " +
-            "FROM producto p LEFT JOIN codigobarras cb ON p.codigobarras = cb.id " +
-            "WHERE p.eliminado = FALSE AND (p.nombre LIKE ? OR p.marca LIKE ?)";
+    private static final String WHERE_SEARCH = "WHERE p.eliminado = FALSE AND (p.nombre LIKE ? OR p.marca LIKE ?)";
+
+// Página de productos activos posteriores a un ID (keyset). Usa la PK, así
+// cada página cuesta lo mismo sin importar cuán profundo se navegue.
+
+    private static final String WHERE_PAGE = "WHERE p.eliminado = FALSE AND p.id > ? ORDER BY p.id LIMIT ?";
+
+// Página de la búsqueda por nombre o marca posterior a un ID (keyset).
+
+    private static final String WHERE_SEARCH_PAGE =
+            "WHERE p.eliminado = FALSE AND (p.nombre LIKE ? OR p.marca LIKE ?) AND p.id > ? ORDER BY p.id LIMIT ?";
+
+    private static final String SELECT_BY_ID_SQL = SELECT_FROM + WHERE_BY_ID;
+    private static final String SELECT_ALL_SQL = SELECT_FROM + WHERE_ALL;
+    private static final String SEARCH_BY_NAME_SQL = SELECT_FROM + WHERE_SEARCH;
+    private static final String SELECT_PAGE_SQL = SELECT_FROM + WHERE_PAGE;
+    private static final String SEARCH_PAGE_SQL = SELECT_FROM + WHERE_SEARCH_PAGE;
+
+    private static final String SELECT_BY_ID_LAZY_SQL = SELECT_LAZY_FROM + WHERE_BY_ID;
+    private static final String SELECT_ALL_LAZY_SQL = SELECT_LAZY_FROM + WHERE_ALL;
+    private static final String SEARCH_BY_NAME_LAZY_SQL = SELECT_LAZY_FROM + WHERE_SEARCH;
+    private static final String SELECT_PAGE_LAZY_SQL = SELECT_LAZY_FROM + WHERE_PAGE;
+    private static final String SEARCH_PAGE_LAZY_SQL = SELECT_LAZY_FROM + WHERE_SEARCH_PAGE;
+
+// Varios productos activos por ID (ver ConsultaPorIds).
+
+    private static final ConsultaPorIds SELECT_BY_IDS =
+            new ConsultaPorIds(SELECT_FROM + "WHERE p.eliminado = FALSE AND p.id IN ");
+    private static final ConsultaPorIds SELECT_BY_IDS_LAZY =
+            new ConsultaPorIds(SELECT_LAZY_FROM + "WHERE p.eliminado = FALSE AND p.id IN ");
+
+// SELECT del producto activo que referencia un CodigoBarras (usa el índice de la FK).
+
+    private static final String SELECT_BY_CODIGO_BARRAS_SQL = SELECT_FROM +
+            "WHERE p.codigoBarras = ? AND p.eliminado = FALSE";
+
+// Proyecciones de resumen (id, nombre, marca, precio) para listados: solo la
+// tabla producto, sin JOIN ni columnas que la vista no muestra.
+
+    private static final String RESUMEN_PAGE_SQL = "SELECT id, nombre, marca, precio FROM producto " +
+            "WHERE eliminado = FALSE AND id > ? ORDER BY id LIMIT ?";
+
+    private static final String RESUMEN_SEARCH_PAGE_SQL = "SELECT id, nombre, marca, precio FROM producto " +
+            "WHERE eliminado = FALSE AND (nombre LIKE ? OR marca LIKE ?) AND id > ? ORDER BY id LIMIT ?";
+
+// Métricas por operación (latencia, llamadas, errores, filas), publicadas por JMX.
+
+    private static final MetricasOperacion M_INSERTAR = Metricas.operacion("ProductoDAO", "insertar");
+    private static final MetricasOperacion M_INSERT_TX = Metricas.operacion("ProductoDAO", "insertTx");
+    private static final MetricasOperacion M_INSERTAR_LOTE = Metricas.operacion("ProductoDAO", "insertarLote");
+    private static final MetricasOperacion M_INSERTAR_LOTE_TX = Metricas.operacion("ProductoDAO", "insertarLoteTx");
+    private static final MetricasOperacion M_ACTUALIZAR = Metricas.operacion("ProductoDAO", "actualizar");
+    private static final MetricasOperacion M_ACTUALIZAR_TX = Metricas.operacion("ProductoDAO", "actualizarTx");
+    private static final MetricasOperacion M_ELIMINAR = Metricas.operacion("ProductoDAO", "eliminar");
+    private static final MetricasOperacion M_ELIMINAR_TX = Metricas.operacion("ProductoDAO", "eliminarTx");
+    private static final MetricasOperacion M_GET_BY_ID = Metricas.operacion("ProductoDAO", "getById");
+    private static final MetricasOperacion M_GET_BY_IDS = Metricas.operacion("ProductoDAO", "getByIds");
+    private static final MetricasOperacion M_GET_ALL = Metricas.operacion("ProductoDAO", "getAll");
+    private static final MetricasOperacion M_STREAM_ALL = Metricas.operacion("ProductoDAO", "streamAll");
+    private static final MetricasOperacion M_BUSCAR = Metricas.operacion("ProductoDAO", "buscarPorNombreMarca");
 
-   
-   
     private final CodigoBarrasDAO codigoBarrasDAO;
+    private final RowMapper.Fabrica<Producto> mapperPerezoso;
 
     
 // Constructor que recibe CodigoBarrasDAO (no debe ser null).
@@ -66,6 +138,7 @@ public class ProductoDAO implements GenericDAO<Producto> {
             throw new IllegalArgumentException("CodigoBarrasDAO no puede ser null");
         }
         this.codigoBarrasDAO = codigoBarrasDAO;
+        this.mapperPerezoso = rs -> ProductoRowMapper.perezoso(rs, codigoBarrasDAO::getById);
     }
 
  // Inserta un producto usando conexión propia. Asigna ID generado.
@@ -73,23 +146,61 @@ public class ProductoDAO implements GenericDAO<Producto> {
     
     @Override
     public void insertar(Producto producto) throws Exception {
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+        M_INSERTAR.medir(1, () -> {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
-            setProductoParameters(stmt, producto);
-            stmt.executeUpdate();
-            setGeneratedId(stmt, producto);
-        }
+                setProductoParameters(stmt, producto);
+                stmt.executeUpdate();
+                setGeneratedId(stmt, producto);
+            }
+        });
     }
 
     
     @Override
     public void insertTx(Producto producto, Connection conn) throws Exception {
-        try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
-            setProductoParameters(stmt, producto);
-            stmt.executeUpdate();
-            setGeneratedId(stmt, producto);
+        M_INSERT_TX.medir(1, () -> {
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                setProductoParameters(stmt, producto);
+                stmt.executeUpdate();
+                setGeneratedId(stmt, producto);
+            }
+        });
+    }
+
+// Inserta productos en lotes con transacción propia. Asigna los IDs generados.
+
+    @Override
+    public void insertarLote(List<Producto> productos, int tamanioLote) throws Exception {
+        if (productos == null) {
+            throw new IllegalArgumentException("La lista de productos no puede ser null");
         }
+        M_INSERTAR_LOTE.medir(productos.size(), () -> {
+            try (TransactionManager tx = new TransactionManager(DatabaseConnection.getConnection())) {
+                tx.startTransaction();
+                insertarLoteTx(productos, tx.getConnection(), tamanioLote);
+                tx.commit();
+            }
+        });
+    }
+
+// Inserta productos en lotes dentro de una transacción existente.
+// Los CodigoBarras referenciados ya deben tener ID.
+
+    @Override
+    public void insertarLoteTx(List<Producto> productos, Connection conn, int tamanioLote) throws Exception {
+        if (productos == null) {
+            throw new IllegalArgumentException("La lista de productos no puede ser null");
+        }
+        if (productos.isEmpty()) {
+            return;
+        }
+        M_INSERTAR_LOTE_TX.medir(productos.size(), () -> {
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                BatchInserter.insertar(stmt, productos, tamanioLote, this::setProductoParameters);
+            }
+        });
     }
 
  // Actualiza Producto por ID. Lanza excepción si no existe.
@@ -97,23 +208,43 @@ public class ProductoDAO implements GenericDAO<Producto> {
     
     @Override
     public void actualizar(Producto producto) throws Exception {
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
+        M_ACTUALIZAR.medir(1, () -> {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                actualizarTx(producto, conn);
+            }
+            producto.limpiarModificados();
+        });
+    }
 
-           stmt.setString(1, producto.getNombre());          // nombre
-           stmt.setString(2, producto.getMarca());           // marca
-           stmt.setString(3, producto.getCategoria());       // categoria
-           stmt.setDouble(4, producto.getPrecio());          // precio
-           stmt.setDouble(5, producto.getPeso());            // peso
-setCodigoBarrasId(stmt, 6, producto.getCodBarras()); // codigoBarras
-           stmt.setInt(7, producto.getId());                 // WHERE id
+// Actualiza Producto por ID dentro de una transacción existente.
 
+    @Override
+    public void actualizarTx(Producto producto, Connection conn) throws Exception {
+        List<String> columnas = ActualizacionParcial.columnas(producto, COLUMNAS_UPDATE);
+        if (columnas.isEmpty()) {
+            return;
+        }
+        String sql = columnas.size() == COLUMNAS_UPDATE.length
+                ? UPDATE_SQL : ActualizacionParcial.sql("producto", columnas);
 
-            int rowsAffected = stmt.executeUpdate();
-            if (rowsAffected == 0) {
-                throw new SQLException("No se pudo actualizar el producto con ID: " + producto.getId());
+        M_ACTUALIZAR_TX.medir(1, () -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                int parametro = 1;
+                for (String columna : columnas) {
+                    setColumna(stmt, parametro++, columna, producto);
+                }
+                stmt.setInt(parametro++, producto.getId());               // WHERE id
+                stmt.setInt(parametro, producto.getVersion());            // AND version
+
+                int rowsAffected = stmt.executeUpdate();
+                if (rowsAffected == 0) {
+                    throw ActualizacionParcial.sinFilas(conn, "producto", producto,
+                            "No se pudo actualizar el producto con ID: " + producto.getId());
+                }
+                producto.setVersion(producto.getVersion() + 1);
             }
-        }
+        });
     }
 
     // Soft delete de Producto. Error si no se encuentra.
@@ -122,16 +253,28 @@ setCodigoBarrasId(stmt, 6, producto.getCodBarras()); // codigoBarras
     
     @Override
     public void eliminar(int id) throws Exception {
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
+        M_ELIMINAR.medir(1, () -> {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                eliminarTx(id, conn);
+            }
+        });
+    }
+
+// Soft delete de Producto dentro de una transacción existente.
+
+    @Override
+    public void eliminarTx(int id, Connection conn) throws Exception {
+        M_ELIMINAR_TX.medir(1, () -> {
+            try (PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
 
-            stmt.setInt(1, id);
-            int rowsAffected = stmt.executeUpdate();
+                stmt.setInt(1, id);
+                int rowsAffected = stmt.executeUpdate();
 
-            if (rowsAffected == 0) {
-                throw new SQLException("No se encontró producto con ID: " + id);
+                if (rowsAffected == 0) {
+                    throw new SQLException("No se encontró producto con ID: " + id);
+                }
             }
-        }
+        });
     }
 
  //  Obtiene Producto por ID con JOIN a CodigoBarras.
@@ -139,18 +282,67 @@ setCodigoBarrasId(stmt, 6, producto.getCodBarras()); // codigoBarras
     
     @Override
     public Producto getById(int id) throws Exception {
+        return getById(id, ModoCarga.EAGER);
+    }
+
+// Obtiene Producto por ID cargando el CodigoBarras según "modo".
+
+    public Producto getById(int id, ModoCarga modo) throws Exception {
+        return M_GET_BY_ID.medir(() -> {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(segun(modo, SELECT_BY_ID_SQL, SELECT_BY_ID_LAZY_SQL))) {
+
+                stmt.setInt(1, id);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return mapper(modo).para(rs).mapRow(rs);
+                    }
+                }
+            } catch (SQLException e) {
+                throw new Exception("Error al obtener producto por ID: " + e.getMessage(), e);
+            }
+            return null;
+        });
+    }
+
+// Obtiene varios productos activos por ID con consultas IN por bloques, en
+// vez de un getById (y una conexión) por producto.
+
+    @Override
+    public Map<Integer, Producto> getByIds(Collection<Integer> ids) throws Exception {
+        return getByIds(ids, ModoCarga.EAGER);
+    }
+
+    public Map<Integer, Producto> getByIds(Collection<Integer> ids, ModoCarga modo) throws Exception {
+        if (ids.isEmpty()) {
+            return new HashMap<>();
+        }
+        return M_GET_BY_IDS.medir(() -> {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                ConsultaPorIds consulta = modo == ModoCarga.LAZY ? SELECT_BY_IDS_LAZY : SELECT_BY_IDS;
+                return consulta.cargar(conn, ids, mapper(modo), Producto::getId);
+            } catch (SQLException e) {
+                throw new Exception("Error al obtener productos por ID: " + e.getMessage(), e);
+            }
+        });
+    }
+
+// Obtiene el producto activo dueño de un CodigoBarras, o null si no hay.
+
+    public Producto getByCodigoBarrasId(int codigoBarrasId) throws Exception {
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(SELECT_BY_ID_SQL)) {
+             PreparedStatement stmt = conn.prepareStatement(SELECT_BY_CODIGO_BARRAS_SQL)) {
 
-            stmt.setInt(1, id);
+            stmt.setInt(1, codigoBarrasId);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToProducto(rs);
+                    return ProductoRowMapper.para(rs).mapRow(rs);
                 }
             }
         } catch (SQLException e) {
-            throw new Exception("Error al obtener producto por ID: " + e.getMessage(), e);
+            throw new Exception("Error al obtener producto por código de barras: " + e.getMessage(), e);
         }
         return null;
     }
@@ -161,48 +353,170 @@ setCodigoBarrasId(stmt, 6, producto.getCodBarras()); // codigoBarras
     
     @Override
     public List<Producto> getAll() throws Exception {
-        List<Producto> productos = new ArrayList<>();
+        return getAll(ModoCarga.EAGER);
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(SELECT_ALL_SQL)) {
+    public List<Producto> getAll(ModoCarga modo) throws Exception {
+        return M_GET_ALL.medir(() -> {
+            List<Producto> productos = new ArrayList<>();
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(segun(modo, SELECT_ALL_SQL, SELECT_ALL_LAZY_SQL))) {
 
-            while (rs.next()) {
-                productos.add(mapResultSetToProducto(rs));
+                RowMapper<Producto> mapper = mapper(modo).para(rs);
+                while (rs.next()) {
+                    productos.add(mapper.mapRow(rs));
+                }
+            } catch (SQLException e) {
+                throw new Exception("Error al obtener todos los productos: " + e.getMessage(), e);
             }
-        } catch (SQLException e) {
-            throw new Exception("Error al obtener todos los productos: " + e.getMessage(), e);
-        }
-        return productos;
+            return productos;
+        });
+    }
+
+// Recorre los productos activos de a uno, con fetch size (sin ArrayList).
+
+    @Override
+    public Stream<Producto> streamAll() throws Exception {
+        return streamAll(ModoCarga.EAGER);
+    }
+
+    public Stream<Producto> streamAll(ModoCarga modo) throws Exception {
+        return M_STREAM_ALL.medir(() -> {
+            try {
+                return ResultSetStream.abrir(DatabaseConnection.getConnection(),
+                        segun(modo, SELECT_ALL_SQL, SELECT_ALL_LAZY_SQL), ResultSetStream.FETCH_SIZE_DEFAULT, mapper(modo));
+            } catch (SQLException e) {
+                throw new Exception("Error al recorrer los productos: " + e.getMessage(), e);
+            }
+        });
     }
 
  // Busca por nombre o marca con LIKE.
 
     public List<Producto> buscarPorNombreMarca(String filtro) throws SQLException {
+        return buscarPorNombreMarca(filtro, ModoCarga.EAGER);
+    }
+
+    public List<Producto> buscarPorNombreMarca(String filtro, ModoCarga modo) throws SQLException {
         if (filtro == null || filtro.trim().isEmpty()) {
             throw new IllegalArgumentException("El filtro de búsqueda no puede estar vacío");
         }
 
-        List<Producto> productos = new ArrayList<>();
+        return M_BUSCAR.medir(() -> {
+            List<Producto> productos = new ArrayList<>();
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(segun(modo, SEARCH_BY_NAME_SQL, SEARCH_BY_NAME_LAZY_SQL))) {
+
+                // Construye el patrón LIKE: %filtro%
+                String searchPattern = "%" + filtro + "%";
+                stmt.setString(1, searchPattern);
+                stmt.setString(2, searchPattern);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    RowMapper<Producto> mapper = mapper(modo).para(rs);
+                    while (rs.next()) {
+                        productos.add(mapper.mapRow(rs));
+                    }
+                }
+            }
+            return productos;
+        });
+    }
+
+
+// Devuelve hasta "tamanio" productos con ID mayor a despuesDeId, ordenados por ID.
+
+    public Pagina<Producto> listarPagina(int despuesDeId, int tamanio) throws SQLException {
+        return listarPagina(despuesDeId, tamanio, ModoCarga.EAGER);
+    }
+
+    public Pagina<Producto> listarPagina(int despuesDeId, int tamanio, ModoCarga modo) throws SQLException {
+        return paginaPorId(segun(modo, SELECT_PAGE_SQL, SELECT_PAGE_LAZY_SQL), null, despuesDeId, tamanio,
+                mapper(modo), Producto::getId);
+    }
+
+// Igual que buscarPorNombreMarca, pero de a una página por vez.
+
+    public Pagina<Producto> buscarPorNombreMarcaPagina(String filtro, int despuesDeId, int tamanio) throws SQLException {
+        return buscarPorNombreMarcaPagina(filtro, despuesDeId, tamanio, ModoCarga.EAGER);
+    }
+
+    public Pagina<Producto> buscarPorNombreMarcaPagina(String filtro, int despuesDeId, int tamanio, ModoCarga modo)
+            throws SQLException {
+        if (filtro == null || filtro.trim().isEmpty()) {
+            throw new IllegalArgumentException("El filtro de búsqueda no puede estar vacío");
+        }
+        return paginaPorId(segun(modo, SEARCH_PAGE_SQL, SEARCH_PAGE_LAZY_SQL), filtro, despuesDeId, tamanio,
+                mapper(modo), Producto::getId);
+    }
+
+// Como listarPagina, pero solo con las columnas del resumen.
+
+    public Pagina<ProductoResumen> listarResumenPagina(int despuesDeId, int tamanio) throws SQLException {
+        return paginaPorId(RESUMEN_PAGE_SQL, null, despuesDeId, tamanio, ProductoResumenRowMapper::para,
+                ProductoResumen::getId);
+    }
+
+// Como buscarPorNombreMarcaPagina, pero solo con las columnas del resumen.
+
+    public Pagina<ProductoResumen> buscarResumenPorNombreMarcaPagina(String filtro, int despuesDeId, int tamanio)
+            throws SQLException {
+        if (filtro == null || filtro.trim().isEmpty()) {
+            throw new IllegalArgumentException("El filtro de búsqueda no puede estar vacío");
+        }
+        return paginaPorId(RESUMEN_SEARCH_PAGE_SQL, filtro, despuesDeId, tamanio, ProductoResumenRowMapper::para,
+                ProductoResumen::getId);
+    }
+
+// Ejecuta una consulta paginada por ID. Si hay filtro, ocupa los dos primeros
+// parámetros (nombre y marca LIKE); siguen el cursor y el límite.
+// Se pide una fila de más (LIMIT tamanio + 1) para saber si hay página siguiente.
+
+    private <T> Pagina<T> paginaPorId(String sql, String filtro, int despuesDeId, int tamanio,
+                                      RowMapper.Fabrica<T> fabrica, ToIntFunction<T> idDe) throws SQLException {
+        List<T> items = new ArrayList<>(tamanio);
+        boolean hayMas = false;
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(SEARCH_BY_NAME_SQL)) {
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            // Construye el patrón LIKE: %filtro%
-            String searchPattern = "%" + filtro + "%";
-            stmt.setString(1, searchPattern);
-            stmt.setString(2, searchPattern);
+            int parametro = 1;
+            if (filtro != null) {
+                String searchPattern = "%" + filtro + "%";
+                stmt.setString(parametro++, searchPattern);
+                stmt.setString(parametro++, searchPattern);
+            }
+            stmt.setInt(parametro++, despuesDeId);
+            stmt.setInt(parametro, tamanio + 1);
 
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<T> mapper = fabrica.para(rs);
                 while (rs.next()) {
-                    productos.add(mapResultSetToProducto(rs));
+                    if (items.size() == tamanio) {
+                        hayMas = true;
+                        break;
+                    }
+                    items.add(mapper.mapRow(rs));
                 }
             }
         }
-        return productos;
+
+        int siguienteCursor = hayMas ? idDe.applyAsInt(items.get(items.size() - 1)) : 0;
+        return new Pagina<>(items, siguienteCursor);
     }
 
-    
+// SQL y mapper según el modo de carga del CodigoBarras.
+
+    private static String segun(ModoCarga modo, String eager, String lazy) {
+        return modo == ModoCarga.LAZY ? lazy : eager;
+    }
+
+    private RowMapper.Fabrica<Producto> mapper(ModoCarga modo) {
+        return modo == ModoCarga.LAZY ? mapperPerezoso : ProductoRowMapper::para;
+    }
 
     //  Carga parámetros del Producto en PreparedStatement.
 
@@ -215,16 +529,31 @@ setCodigoBarrasId(stmt, 6, producto.getCodBarras()); // codigoBarras
         stmt.setDouble(4, producto.getPrecio());
         stmt.setDouble(5, producto.getPeso());
 
-        setCodigoBarrasId(stmt, 6, producto.getCodBarras());
+        setCodigoBarrasId(stmt, 6, producto);
     }
 
-  //  Asigna ID de CodigoBarras o NULL.
+// Carga una columna del UPDATE (ver COLUMNAS_UPDATE).
+
+    private void setColumna(PreparedStatement stmt, int parameterIndex, String columna, Producto producto)
+            throws SQLException {
+        switch (columna) {
+            case "nombre" -> stmt.setString(parameterIndex, producto.getNombre());
+            case "marca" -> stmt.setString(parameterIndex, producto.getMarca());
+            case "categoria" -> stmt.setString(parameterIndex, producto.getCategoria());
+            case "precio" -> stmt.setDouble(parameterIndex, producto.getPrecio());
+            case "peso" -> stmt.setDouble(parameterIndex, producto.getPeso());
+            case "codigoBarras" -> setCodigoBarrasId(stmt, parameterIndex, producto);
+            default -> throw new IllegalArgumentException("Columna desconocida: " + columna);
+        }
+    }
+
+  //  Asigna ID de CodigoBarras o NULL (sin cargar un código perezoso).
 
     
     
-    private void setCodigoBarrasId(PreparedStatement stmt, int parameterIndex, CodigoBarras codigoBarras) throws SQLException {
-        if (codigoBarras != null && codigoBarras.getId() > 0) {
-            stmt.setInt(parameterIndex, codigoBarras.getId());
+    private void setCodigoBarrasId(PreparedStatement stmt, int parameterIndex, Producto producto) throws SQLException {
+        if (producto.getCodigoBarrasId() > 0) {
+            stmt.setInt(parameterIndex, producto.getCodigoBarrasId());
         } else {
             stmt.setNull(parameterIndex, Types.INTEGER);
         }
@@ -242,35 +571,4 @@ setCodigoBarrasId(stmt, 6, producto.getCodBarras()); // codigoBarras
             }
         }
     }
-
-  // Crea Producto desde ResultSet, incluyendo CodigoBarras si existe.
-
-    
-    private Producto mapResultSetToProducto(ResultSet rs) throws SQLException {
-        Producto producto = new Producto();
-        producto.setId(rs.getInt("id"));
-        producto.setNombre(rs.getString("nombre"));
-        producto.setMarca(rs.getString("marca"));
-        producto.setCategoria(rs.getString("categoria"));
-        producto.setPrecio(rs.getDouble("precio"));
-        producto.setPeso(rs.getDouble("peso"));
-
-        
- // Manejo correcto de LEFT JOIN: verificar si codigoBarras es NULL
-  
- 
- int codigoBarrasId = rs.getInt("id");
-        if (codigoBarrasId > 0 && !rs.wasNull()) {
-            CodigoBarras codigoBarras = new CodigoBarras();
-            codigoBarras.setId(rs.getInt("id"));
-            codigoBarras.setTipo(rs.getString("tipo"));
-            codigoBarras.setValor(rs.getString("valor"));
-            codigoBarras.setFechaAsignacion(rs.getObject("fechaAsignacion", LocalDate.class));
-            codigoBarras.setObservaciones(rs.getString("observaciones"));
-            
-            producto.setCodBarras(codigoBarras);
-        }
-
-        return producto;
-    }
 }
@@ -0,0 +1,32 @@
+package Dao;
+
+import Entities.ProductoResumen;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Mapea las consultas de resumen de ProductoDAO por posición (resueltas una
+// vez con para(rs)).
+
+final class ProductoResumenRowMapper implements RowMapper<ProductoResumen> {
+
+    private final int id;
+    private final int nombre;
+    private final int marca;
+    private final int precio;
+
+    private ProductoResumenRowMapper(int[] indices) {
+        this.id = indices[0];
+        this.nombre = indices[1];
+        this.marca = indices[2];
+        this.precio = indices[3];
+    }
+
+    static ProductoResumenRowMapper para(ResultSet rs) throws SQLException {
+        return new ProductoResumenRowMapper(Columnas.resolver(rs, "id", "nombre", "marca", "precio"));
+    }
+
+    @Override
+    public ProductoResumen mapRow(ResultSet rs) throws SQLException {
+        return new ProductoResumen(rs.getInt(id), rs.getString(nombre), rs.getString(marca), rs.getDouble(precio));
+    }
+}
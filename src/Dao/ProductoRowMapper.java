@@ -0,0 +1,103 @@
+package Dao;
+
+import Entities.CodigoBarras;
+import Entities.Producto;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+// Mapea las filas de las consultas de ProductoDAO por posición. Las
+// posiciones se resuelven una vez por ResultSet; después cada fila se lee sin
+// buscar etiquetas.
+// - para(rs): consultas con LEFT JOIN a CodigoBarras (ModoCarga.EAGER).
+// - perezoso(rs, cargador): consultas sin JOIN; el Producto queda con la FK
+//   y carga su CodigoBarras al pedirlo (ModoCarga.LAZY).
+// Las entidades salen rastreando cambios (Base.limpiarModificados), así
+// actualizar solo escribe las columnas que se modifiquen después.
+
+final class ProductoRowMapper implements RowMapper<Producto> {
+
+    private final int id;
+    private final int nombre;
+    private final int marca;
+    private final int categoria;
+    private final int precio;
+    private final int peso;
+    private final int codigoBarrasFk;
+    private final int version;
+    private final int cbId;
+    private final int cbTipo;
+    private final int cbValor;
+    private final int cbFechaAsignacion;
+    private final int cbObservaciones;
+    private final int cbVersion;
+    private final Producto.CargadorCodigoBarras cargador;
+
+    private ProductoRowMapper(int[] indices, Producto.CargadorCodigoBarras cargador) {
+        this.id = indices[0];
+        this.nombre = indices[1];
+        this.marca = indices[2];
+        this.categoria = indices[3];
+        this.precio = indices[4];
+        this.peso = indices[5];
+        this.codigoBarrasFk = indices[6];
+        this.version = indices[7];
+        this.cargador = cargador;
+        boolean conJoin = cargador == null;
+        this.cbId = conJoin ? indices[8] : 0;
+        this.cbTipo = conJoin ? indices[9] : 0;
+        this.cbValor = conJoin ? indices[10] : 0;
+        this.cbFechaAsignacion = conJoin ? indices[11] : 0;
+        this.cbObservaciones = conJoin ? indices[12] : 0;
+        this.cbVersion = conJoin ? indices[13] : 0;
+    }
+
+    static ProductoRowMapper para(ResultSet rs) throws SQLException {
+        return new ProductoRowMapper(Columnas.resolver(rs, "id", "nombre", "marca", "categoria", "precio", "peso",
+                "codigoBarras", "version", "cb_id", "tipo", "valor", "fechaAsignacion", "observaciones", "cb_version"),
+                null);
+    }
+
+    static ProductoRowMapper perezoso(ResultSet rs, Producto.CargadorCodigoBarras cargador) throws SQLException {
+        if (cargador == null) {
+            throw new IllegalArgumentException("El cargador de CodigoBarras no puede ser null");
+        }
+        return new ProductoRowMapper(Columnas.resolver(rs, "id", "nombre", "marca", "categoria", "precio", "peso",
+                "codigoBarras", "version"), cargador);
+    }
+
+    @Override
+    public Producto mapRow(ResultSet rs) throws SQLException {
+        Producto producto = new Producto();
+        producto.setId(rs.getInt(id));
+        producto.setNombre(rs.getString(nombre));
+        producto.setMarca(rs.getString(marca));
+        producto.setCategoria(rs.getString(categoria));
+        producto.setPrecio(rs.getDouble(precio));
+        producto.setPeso(rs.getDouble(peso));
+        producto.setVersion(rs.getInt(version));
+
+        if (cargador != null) {
+            producto.setCodigoBarrasPerezoso(rs.getInt(codigoBarrasFk), cargador);
+            producto.limpiarModificados();
+            return producto;
+        }
+
+// LEFT JOIN: sin código de barras, cb_id viene NULL.
+
+        int codigoBarrasId = rs.getInt(cbId);
+        if (!rs.wasNull()) {
+            CodigoBarras codigoBarras = new CodigoBarras();
+            codigoBarras.setId(codigoBarrasId);
+            codigoBarras.setTipo(rs.getString(cbTipo));
+            codigoBarras.setValor(rs.getString(cbValor));
+            codigoBarras.setFechaAsignacion(rs.getObject(cbFechaAsignacion, LocalDate.class));
+            codigoBarras.setObservaciones(rs.getString(cbObservaciones));
+            codigoBarras.setVersion(rs.getInt(cbVersion));
+            codigoBarras.limpiarModificados();
+            producto.setCodBarras(codigoBarras);
+        }
+        producto.limpiarModificados();
+        return producto;
+    }
+}
@@ -0,0 +1,113 @@
+package Dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Expone una consulta como Stream perezoso: cada fila se mapea recién cuando
+// el consumidor la pide, con fetch size para que el driver no cargue todo el
+// resultado en memoria.
+// El Stream es dueño de la conexión: la cierra al agotarse, si falla la
+// lectura, o al llamar close() (usar try-with-resources si se corta antes).
+
+final class ResultSetStream {
+
+// Filas que el driver trae por viaje al servidor.
+
+    static final int FETCH_SIZE_DEFAULT = 500;
+
+    private ResultSetStream() {
+    }
+
+// Ejecuta la consulta sobre conn (que pasa a ser propiedad del Stream). El
+// mapper se crea una vez, con el ResultSet ya abierto.
+
+    static <T> Stream<T> abrir(Connection conn, String sql, int fetchSize, RowMapper.Fabrica<T> fabrica)
+            throws SQLException {
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        RowMapper<T> mapper;
+        try {
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(fetchSize);
+            rs = stmt.executeQuery();
+            mapper = fabrica.para(rs);
+        } catch (SQLException | RuntimeException e) {
+            cerrar(rs, stmt, conn);
+            throw e;
+        }
+
+        Recursos recursos = new Recursos(conn, stmt, rs);
+        Spliterator<T> filas = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (recursos.cerrados) {
+                    return false;
+                }
+                T fila;
+                try {
+                    if (!recursos.rs.next()) {
+                        recursos.cerrar();
+                        return false;
+                    }
+                    fila = mapper.mapRow(recursos.rs);
+                } catch (SQLException e) {
+                    recursos.cerrar();
+                    throw new IllegalStateException("Error al leer fila del resultado: " + e.getMessage(), e);
+                }
+                action.accept(fila);
+                return true;
+            }
+        };
+        return StreamSupport.stream(filas, false).onClose(recursos::cerrar);
+    }
+
+    private static void cerrar(ResultSet rs, PreparedStatement stmt, Connection conn) {
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar ResultSet: " + e.getMessage());
+        }
+        try {
+            if (stmt != null) {
+                stmt.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar sentencia: " + e.getMessage());
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar la conexión: " + e.getMessage());
+        }
+    }
+
+    private static final class Recursos {
+        private final Connection conn;
+        private final PreparedStatement stmt;
+        private final ResultSet rs;
+        private boolean cerrados;
+
+        private Recursos(Connection conn, PreparedStatement stmt, ResultSet rs) {
+            this.conn = conn;
+            this.stmt = stmt;
+            this.rs = rs;
+        }
+
+        private void cerrar() {
+            if (!cerrados) {
+                cerrados = true;
+                ResultSetStream.cerrar(rs, stmt, conn);
+            }
+        }
+    }
+}
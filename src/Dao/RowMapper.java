@@ -0,0 +1,22 @@
+package Dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Convierte la fila actual del ResultSet en una entidad.
+
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    T mapRow(ResultSet rs) throws SQLException;
+
+// Crea el mapper de un ResultSet ya ejecutado. Se llama una vez por
+// resultado, así las posiciones de columna se resuelven antes de la primera
+// fila y no en cada una.
+
+    @FunctionalInterface
+    interface Fabrica<T> {
+
+        RowMapper<T> para(ResultSet rs) throws SQLException;
+    }
+}
@@ -1,5 +1,9 @@
 package Entities;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * Clase base abstracta para todas las entidades del sistema.
  * Implementa el patrón de soft delete mediante el campo 'eliminado'.
@@ -27,6 +31,22 @@ public abstract class Base {
      */
     private boolean eliminado;
 
+    /**
+     * Versión de la fila para el control de concurrencia optimista.
+     * Cada UPDATE exige que la versión en la BD siga siendo esta y la
+     * incrementa; si otro la cambió antes, el DAO lanza ConflictoVersionException.
+     * Las entidades nuevas arrancan en 0 (valor por defecto de la columna).
+     */
+    private int version;
+
+    /**
+     * Campos modificados desde que la entidad se leyó de la BD o se guardó por
+     * última vez. Los nombres coinciden con las columnas de la tabla.
+     * Vale null mientras la entidad no se rastrea (por ejemplo, una entidad
+     * nueva): en ese caso los DAOs escriben todas las columnas.
+     */
+    private Set<String> modificados;
+
     /**
      * Constructor completo con todos los campos.
      * Usado por los DAOs al reconstruir entidades desde la base de datos.
@@ -39,6 +59,21 @@ public abstract class Base {
         this.eliminado = eliminado;
     }
 
+    /**
+     * Constructor de copia para las subclases: copia ID, eliminación, versión
+     * y el estado de rastreo. Va en el constructor (y no en un método que llame la
+     * subclase) para no exponer 'this' antes de que la subclase termine de
+     * inicializarse.
+     *
+     * @param otra Entidad de la que se copia
+     */
+    protected Base(Base otra) {
+        this.id = otra.id;
+        this.eliminado = otra.eliminado;
+        this.version = otra.version;
+        this.modificados = otra.modificados == null ? null : new HashSet<>(otra.modificados);
+    }
+
     /**
      * Constructor por defecto.
      * Inicializa una entidad nueva sin ID (será asignado por la BD).
@@ -83,4 +118,62 @@ public abstract class Base {
     public void setEliminado(boolean eliminado) {
         this.eliminado = eliminado;
     }
+
+    /**
+     * Obtiene la versión leída de la BD (o la asignada tras el último UPDATE).
+     * @return versión de la fila, 0 si la entidad es nueva
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Establece la versión de la entidad.
+     * Llamado por los DAOs al leer la fila y después de cada UPDATE.
+     *
+     * @param version Versión actual de la fila
+     */
+    public final void setVersion(int version) {
+        this.version = version;
+    }
+
+    /**
+     * Indica si la entidad registra sus cambios (fue leída de la BD).
+     * @return true si getCamposModificados() es confiable
+     */
+    public boolean isRastreada() {
+        return modificados != null;
+    }
+
+    /**
+     * Campos cambiados desde la carga o el último guardado.
+     * @return nombres de columna; vacío si no hubo cambios o si no se rastrea
+     */
+    public Set<String> getCamposModificados() {
+        return modificados == null ? Collections.emptySet() : Collections.unmodifiableSet(modificados);
+    }
+
+    /**
+     * Empieza a rastrear cambios desde el estado actual.
+     * Lo llaman los DAOs al cargar la entidad y después de guardarla.
+     */
+    public void limpiarModificados() {
+        if (modificados == null) {
+            modificados = new HashSet<>();
+        } else {
+            modificados.clear();
+        }
+    }
+
+    /**
+     * Registra que un campo cambió. Las subclases lo llaman desde sus setters
+     * solo cuando el valor nuevo es distinto del actual.
+     *
+     * @param campo Nombre de la columna modificada
+     */
+    protected void marcarModificado(String campo) {
+        if (modificados != null) {
+            modificados.add(campo);
+        }
+    }
 }
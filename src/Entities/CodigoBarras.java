@@ -1,6 +1,7 @@
 package Entities;
 
 import java.time.LocalDate;
+import java.util.Objects;
 
 public class CodigoBarras extends Base {
 
@@ -21,12 +22,23 @@ public class CodigoBarras extends Base {
         this.observaciones = observaciones;
     }
 
+    public CodigoBarras(CodigoBarras otro) {
+        super(otro);
+        this.valor = otro.valor;
+        this.tipo = otro.tipo;
+        this.fechaAsignacion = otro.fechaAsignacion;
+        this.observaciones = otro.observaciones;
+    }
+
     public String getValor() {
         return valor;
     }
 
     public void setValor(String valor) {
-        this.valor = valor;
+        if (!Objects.equals(this.valor, valor)) {
+            this.valor = valor;
+            marcarModificado("valor");
+        }
     }
 
     public String getTipo() {
@@ -34,7 +46,10 @@ public class CodigoBarras extends Base {
     }
 
     public void setTipo(String tipo) {
-        this.tipo = tipo;
+        if (!Objects.equals(this.tipo, tipo)) {
+            this.tipo = tipo;
+            marcarModificado("tipo");
+        }
     }
 
     public LocalDate getFechaAsignacion() {
@@ -42,7 +57,10 @@ public class CodigoBarras extends Base {
     }
 
     public void setFechaAsignacion(LocalDate fechaAsignacion) {
-        this.fechaAsignacion = fechaAsignacion;
+        if (!Objects.equals(this.fechaAsignacion, fechaAsignacion)) {
+            this.fechaAsignacion = fechaAsignacion;
+            marcarModificado("fechaAsignacion");
+        }
     }
 
     public String getObservaciones() {
@@ -50,7 +68,10 @@ public class CodigoBarras extends Base {
     }
 
     public void setObservaciones(String observaciones) {
-        this.observaciones = observaciones;
+        if (!Objects.equals(this.observaciones, observaciones)) {
+            this.observaciones = observaciones;
+            marcarModificado("observaciones");
+        }
     }
 
     @Override
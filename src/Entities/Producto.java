@@ -1,13 +1,25 @@
 package Entities;
 
+import java.util.Objects;
+
 public class Producto extends Base {
 
+// Carga perezosa del CodigoBarras: el DAO deja solo la FK y un cargador, y el
+// código se trae la primera vez que se pide getCodBarras().
+
+    @FunctionalInterface
+    public interface CargadorCodigoBarras {
+        CodigoBarras cargar(int id) throws Exception;
+    }
+
     private String nombre;
     private String marca;
     private String categoria;
     private double precio;
     private double peso;
     private CodigoBarras codigoBarras;
+    private int codigoBarrasId;
+    private CargadorCodigoBarras cargadorCodigoBarras;
 
     public Producto() {
         super();
@@ -22,12 +34,27 @@ public class Producto extends Base {
         this.peso = peso;
     }
 
+    public Producto(Producto otro) {
+        super(otro);
+        this.nombre = otro.nombre;
+        this.marca = otro.marca;
+        this.categoria = otro.categoria;
+        this.precio = otro.precio;
+        this.peso = otro.peso;
+        this.codigoBarras = otro.codigoBarras != null ? new CodigoBarras(otro.codigoBarras) : null;
+        this.codigoBarrasId = otro.codigoBarrasId;
+        this.cargadorCodigoBarras = otro.cargadorCodigoBarras;
+    }
+
     public String getNombre() {
         return nombre;
     }
 
     public void setNombre(String nombre) {
-        this.nombre = nombre;
+        if (!Objects.equals(this.nombre, nombre)) {
+            this.nombre = nombre;
+            marcarModificado("nombre");
+        }
     }
 
     public String getMarca() {
@@ -35,7 +62,10 @@ public class Producto extends Base {
     }
 
     public void setMarca(String marca) {
-        this.marca = marca;
+        if (!Objects.equals(this.marca, marca)) {
+            this.marca = marca;
+            marcarModificado("marca");
+        }
     }
 
     public String getCategoria() {
@@ -43,7 +73,10 @@ public class Producto extends Base {
     }
 
     public void setCategoria(String categoria) {
-        this.categoria = categoria;
+        if (!Objects.equals(this.categoria, categoria)) {
+            this.categoria = categoria;
+            marcarModificado("categoria");
+        }
     }
 
     public double getPrecio() {
@@ -51,7 +84,10 @@ public class Producto extends Base {
     }
 
     public void setPrecio(double precio) {
-        this.precio = precio;
+        if (Double.compare(this.precio, precio) != 0) {
+            this.precio = precio;
+            marcarModificado("precio");
+        }
     }
 
     public double getPeso() {
@@ -59,15 +95,55 @@ public class Producto extends Base {
     }
 
     public void setPeso(double peso) {
-        this.peso = peso;
+        if (Double.compare(this.peso, peso) != 0) {
+            this.peso = peso;
+            marcarModificado("peso");
+        }
     }
 
     public CodigoBarras getCodBarras() {
+        if (cargadorCodigoBarras != null) {
+            CargadorCodigoBarras cargador = cargadorCodigoBarras;
+            try {
+                codigoBarras = cargador.cargar(codigoBarrasId);
+                if (codigoBarras == null) {
+                    codigoBarrasId = 0;
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException("Error al cargar el código de barras " + codigoBarrasId
+                        + " del producto " + getId() + ": " + e.getMessage(), e);
+            }
+            cargadorCodigoBarras = null;
+        }
         return codigoBarras;
     }
 
     public void setCodBarras(CodigoBarras codigoBarras) {
+        if (codigoBarras != this.codigoBarras
+                || getCodigoBarrasId() != (codigoBarras != null ? codigoBarras.getId() : 0)) {
+            marcarModificado("codigoBarras");
+        }
         this.codigoBarras = codigoBarras;
+        this.codigoBarrasId = codigoBarras != null ? codigoBarras.getId() : 0;
+        this.cargadorCodigoBarras = null;
+    }
+
+// ID del CodigoBarras asociado (0 si no tiene), sin forzar la carga perezosa.
+
+    public int getCodigoBarrasId() {
+        return codigoBarras != null ? codigoBarras.getId() : codigoBarrasId;
+    }
+
+// Deja el código sin cargar: getCodBarras() lo pedirá al cargador.
+
+    public void setCodigoBarrasPerezoso(int codigoBarrasId, CargadorCodigoBarras cargador) {
+        this.codigoBarras = null;
+        this.codigoBarrasId = codigoBarrasId;
+        this.cargadorCodigoBarras = codigoBarrasId > 0 ? cargador : null;
+    }
+
+    public boolean isCodigoBarrasCargado() {
+        return cargadorCodigoBarras == null;
     }
 
     @Override
@@ -77,7 +153,8 @@ public class Producto extends Base {
                 + ", marca=" + marca
                 + ", precio=" + precio
                 + ", eliminado=" + isEliminado()
-                + ", codigoBarras=" + (codigoBarras != null ? codigoBarras.getValor() : "N/A")
+                + ", codigoBarras=" + (codigoBarras != null ? codigoBarras.getValor()
+                        : codigoBarrasId > 0 ? "#" + codigoBarrasId : "N/A")
                 + "]";
     }
 }
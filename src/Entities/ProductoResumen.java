@@ -0,0 +1,44 @@
+package Entities;
+
+// Proyección de solo lectura de un Producto para listados y búsquedas:
+// id, nombre, marca y precio, sin categoría, peso ni el JOIN a CodigoBarras.
+
+public final class ProductoResumen {
+
+    private final int id;
+    private final String nombre;
+    private final String marca;
+    private final double precio;
+
+    public ProductoResumen(int id, String nombre, String marca, double precio) {
+        this.id = id;
+        this.nombre = nombre;
+        this.marca = marca;
+        this.precio = precio;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getMarca() {
+        return marca;
+    }
+
+    public double getPrecio() {
+        return precio;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductoResumen [id=" + id
+                + ", nombre=" + nombre
+                + ", marca=" + marca
+                + ", precio=" + precio
+                + "]";
+    }
+}
@@ -78,6 +78,11 @@ public class AppMenu {
             case 8 -> menuHandler.eliminarCodBarrasPorId();
             case 9 -> menuHandler.actualizarCodBarrasPorProducto();
             case 10 -> menuHandler.eliminarCodBarrasPorProducto();
+            case 11 -> menuHandler.buscarPorCodBarras();
+            case 12 -> menuHandler.importarCatalogo();
+            case 13 -> menuHandler.exportarCatalogo();
+            case 14 -> menuHandler.resolverCesta();
+            case 15 -> menuHandler.archivarEliminados();
             case 0 -> {
                 System.out.println("Saliendo...");
                 running = false;
@@ -89,7 +94,7 @@ public class AppMenu {
    // Crea e inicializa los DAOs y servicios usados por productos.
 
     
-    private ProductoServiceImpl createProductoService() {    
+    static ProductoServiceImpl createProductoService() {    
         CodigoBarrasDAO codigoBarrasDAO = new CodigoBarrasDAO();
         ProductoDAO productoDAO = new ProductoDAO(codigoBarrasDAO);
         CodigoBarrasServiceImpl codigoBarrasService = new CodigoBarrasServiceImpl(codigoBarrasDAO);
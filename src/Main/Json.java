@@ -0,0 +1,324 @@
+package Main;
+
+import Entities.CodigoBarras;
+import Entities.Producto;
+import Entities.ProductoResumen;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// JSON mínimo para el servidor HTTP, sin dependencias.
+// Escritura: las entidades se vuelcan campo por campo a un StringBuilder (no
+// pasa por toString ni por reflexión).
+// Lectura: parser recursivo que devuelve Map, List, String, Double, Boolean o
+// null. Lanza IllegalArgumentException si el texto no es JSON válido.
+
+final class Json {
+
+    private Json() {
+    }
+
+    static void producto(StringBuilder sb, Producto p) {
+        sb.append("{\"id\":").append(p.getId());
+        sb.append(",\"nombre\":");
+        texto(sb, p.getNombre());
+        sb.append(",\"marca\":");
+        texto(sb, p.getMarca());
+        sb.append(",\"categoria\":");
+        texto(sb, p.getCategoria());
+        sb.append(",\"precio\":").append(p.getPrecio());
+        sb.append(",\"peso\":").append(p.getPeso());
+        sb.append(",\"codigoBarras\":");
+        if (p.getCodBarras() == null) {
+            sb.append("null");
+        } else {
+            codigoBarras(sb, p.getCodBarras());
+        }
+        sb.append('}');
+    }
+
+    static void codigoBarras(StringBuilder sb, CodigoBarras c) {
+        sb.append("{\"id\":").append(c.getId());
+        sb.append(",\"valor\":");
+        texto(sb, c.getValor());
+        sb.append(",\"tipo\":");
+        texto(sb, c.getTipo());
+        sb.append(",\"fechaAsignacion\":");
+        texto(sb, c.getFechaAsignacion() == null ? null : c.getFechaAsignacion().toString());
+        sb.append(",\"observaciones\":");
+        texto(sb, c.getObservaciones());
+        sb.append('}');
+    }
+
+    static void productos(StringBuilder sb, List<Producto> productos) {
+        sb.append('[');
+        for (int i = 0; i < productos.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            Producto p = productos.get(i);
+            if (p == null) {
+                sb.append("null");
+            } else {
+                producto(sb, p);
+            }
+        }
+        sb.append(']');
+    }
+
+    static void resumenes(StringBuilder sb, List<ProductoResumen> resumenes) {
+        sb.append('[');
+        for (int i = 0; i < resumenes.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            ProductoResumen r = resumenes.get(i);
+            sb.append("{\"id\":").append(r.getId());
+            sb.append(",\"nombre\":");
+            texto(sb, r.getNombre());
+            sb.append(",\"marca\":");
+            texto(sb, r.getMarca());
+            sb.append(",\"precio\":").append(r.getPrecio());
+            sb.append('}');
+        }
+        sb.append(']');
+    }
+
+    static void codigosBarras(StringBuilder sb, List<CodigoBarras> codigos) {
+        sb.append('[');
+        for (int i = 0; i < codigos.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            codigoBarras(sb, codigos.get(i));
+        }
+        sb.append(']');
+    }
+
+    static void texto(StringBuilder sb, String valor) {
+        if (valor == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    static Object parsear(String json) {
+        Lector lector = new Lector(json);
+        lector.saltarEspacios();
+        Object valor = lector.valor();
+        lector.saltarEspacios();
+        if (!lector.fin()) {
+            throw lector.error("Texto de más después del JSON");
+        }
+        return valor;
+    }
+
+// Parsea un objeto JSON (error si el texto es otra cosa).
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> parsearObjeto(String json) {
+        Object valor = parsear(json);
+        if (!(valor instanceof Map)) {
+            throw new IllegalArgumentException("Se esperaba un objeto JSON");
+        }
+        return (Map<String, Object>) valor;
+    }
+
+// Tope de objetos/arreglos anidados: el lector es recursivo y un cuerpo como
+// "[[[[..." no debe poder agotar la pila del hilo del servidor.
+
+    private static final int PROFUNDIDAD_MAXIMA = 64;
+
+    private static final class Lector {
+        private final String texto;
+        private int pos;
+        private int profundidad;
+
+        private Lector(String texto) {
+            this.texto = texto;
+        }
+
+        private boolean fin() {
+            return pos >= texto.length();
+        }
+
+        private void saltarEspacios() {
+            while (!fin() && Character.isWhitespace(texto.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private Object valor() {
+            if (fin()) {
+                throw error("JSON incompleto");
+            }
+            char c = texto.charAt(pos);
+            switch (c) {
+                case '{':
+                case '[':
+                    if (++profundidad > PROFUNDIDAD_MAXIMA) {
+                        throw error("JSON demasiado anidado");
+                    }
+                    Object anidado = c == '{' ? objeto() : arreglo();
+                    profundidad--;
+                    return anidado;
+                case '"':
+                    return cadena();
+                case 't':
+                    return literal("true", Boolean.TRUE);
+                case 'f':
+                    return literal("false", Boolean.FALSE);
+                case 'n':
+                    return literal("null", null);
+                default:
+                    return numero();
+            }
+        }
+
+        private Map<String, Object> objeto() {
+            Map<String, Object> mapa = new LinkedHashMap<>();
+            pos++;
+            saltarEspacios();
+            if (consumir('}')) {
+                return mapa;
+            }
+            do {
+                saltarEspacios();
+                if (fin() || texto.charAt(pos) != '"') {
+                    throw error("Se esperaba el nombre de un campo");
+                }
+                String clave = cadena();
+                saltarEspacios();
+                if (!consumir(':')) {
+                    throw error("Se esperaba ':'");
+                }
+                saltarEspacios();
+                mapa.put(clave, valor());
+                saltarEspacios();
+            } while (consumir(','));
+            if (!consumir('}')) {
+                throw error("Se esperaba '}'");
+            }
+            return mapa;
+        }
+
+        private List<Object> arreglo() {
+            List<Object> lista = new ArrayList<>();
+            pos++;
+            saltarEspacios();
+            if (consumir(']')) {
+                return lista;
+            }
+            do {
+                saltarEspacios();
+                lista.add(valor());
+                saltarEspacios();
+            } while (consumir(','));
+            if (!consumir(']')) {
+                throw error("Se esperaba ']'");
+            }
+            return lista;
+        }
+
+        private String cadena() {
+            StringBuilder sb = new StringBuilder();
+            pos++;
+            while (!fin()) {
+                char c = texto.charAt(pos++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (fin()) {
+                    break;
+                }
+                char escape = texto.charAt(pos++);
+                switch (escape) {
+                    case '"', '\\', '/' -> sb.append(escape);
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'u' -> {
+                        if (pos + 4 > texto.length()) {
+                            throw error("Escape \\u incompleto");
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(texto.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Escape \\u inválido");
+                        }
+                        pos += 4;
+                    }
+                    default -> throw error("Escape inválido: \\" + escape);
+                }
+            }
+            throw error("Cadena sin cerrar");
+        }
+
+        private Double numero() {
+            int inicio = pos;
+            while (!fin() && "+-0123456789.eE".indexOf(texto.charAt(pos)) >= 0) {
+                pos++;
+            }
+            if (inicio == pos) {
+                throw error("Valor inesperado");
+            }
+            Double numero;
+            try {
+                numero = Double.valueOf(texto.substring(inicio, pos));
+            } catch (NumberFormatException e) {
+                throw error("Número inválido");
+            }
+            // 1e999 da Infinity: no cabe en la base ni se puede escribir como JSON
+            if (numero.isInfinite() || numero.isNaN()) {
+                throw error("Número fuera de rango");
+            }
+            return numero;
+        }
+
+        private Object literal(String palabra, Object valor) {
+            if (!texto.startsWith(palabra, pos)) {
+                throw error("Valor inesperado");
+            }
+            pos += palabra.length();
+            return valor;
+        }
+
+        private boolean consumir(char c) {
+            if (!fin() && texto.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private IllegalArgumentException error(String mensaje) {
+            return new IllegalArgumentException("JSON inválido en la posición " + pos + ": " + mensaje);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package Main;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import Dao.ArchivoDAO;
+import Dao.ExportacionDAO;
+import Service.ArchivadorEliminados;
+import Service.ExportadorCatalogo;
+import Service.ImportadorCatalogo;
+import Service.ProductoServiceImpl;
+import Service.ReporteArchivo;
+import Service.ReporteExportacion;
+import Service.ReporteImportacion;
+
+// Comandos sin menú interactivo, para correr la app desde scripts:
+//   importar <archivo> [rechazos]
+//   exportar <archivo.csv|json>
+//   servidor [puerto]
+//   archivar [diasRetencion]
+// Devuelve el código de salida del proceso (0 = ok).
+
+public class LineaComandos {
+
+    private LineaComandos() {
+    }
+
+    static int ejecutar(String[] args) {
+        try {
+            switch (args[0]) {
+                case "importar":
+                    return importar(args);
+                case "exportar":
+                    return exportar(args);
+                case "servidor":
+                    return servidor(args);
+                case "archivar":
+                    return archivar(args);
+                default:
+                    System.err.println("Comando desconocido: " + args[0]);
+                    mostrarUso();
+                    return 2;
+            }
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static int importar(String[] args) throws Exception {
+        if (args.length < 2) {
+            mostrarUso();
+            return 2;
+        }
+        String rechazos = args.length > 2 ? args[2] : args[1] + ".rechazos.tsv";
+        ProductoServiceImpl productoService = AppMenu.createProductoService();
+        ReporteImportacion reporte = new ImportadorCatalogo(productoService)
+                .importar(Path.of(args[1]), Path.of(rechazos));
+        System.out.println(reporte);
+        return reporte.getRechazadas() == 0 ? 0 : 3;
+    }
+
+    private static int exportar(String[] args) throws Exception {
+        if (args.length < 2) {
+            mostrarUso();
+            return 2;
+        }
+        Path destino = Path.of(args[1]);
+        ReporteExportacion reporte = new ExportadorCatalogo(new ExportacionDAO())
+                .exportar(destino, ExportadorCatalogo.Formato.deArchivo(destino));
+        System.out.println(reporte);
+        return 0;
+    }
+
+// Una pasada del archivo de eliminados (para cron). Retención por defecto:
+// -Darchivo.retencionDias o 30.
+
+    private static int archivar(String[] args) throws Exception {
+        int dias = args.length > 1 ? Integer.parseInt(args[1]) : ArchivadorEliminados.RETENCION_DIAS_DEFAULT;
+        ReporteArchivo reporte = new ArchivadorEliminados(new ArchivoDAO(), Duration.ofDays(dias),
+                ArchivadorEliminados.TAMANIO_LOTE_DEFAULT, ArchivadorEliminados.PAUSA_MS_DEFAULT).archivar();
+        System.out.println(reporte);
+        return 0;
+    }
+
+// Atiende HTTP hasta que el proceso recibe una señal de fin (Ctrl+C, SIGTERM).
+// Puerto por defecto: -Dhttp.puerto o 8080. Con -Darchivo.periodoMin > 0
+// además archiva eliminados en segundo plano cada esa cantidad de minutos.
+
+    private static int servidor(String[] args) throws Exception {
+        int puerto = args.length > 1 ? Integer.parseInt(args[1]) : Integer.getInteger("http.puerto", 8080);
+        ServidorHttp servidor = new ServidorHttp(AppMenu.createProductoService(), puerto,
+                Integer.getInteger("http.backlog", 1024));
+        ArchivadorEliminados archivador = new ArchivadorEliminados(new ArchivoDAO());
+        int periodoArchivo = Integer.getInteger("archivo.periodoMin", 0);
+        if (periodoArchivo > 0) {
+            archivador.iniciar(Duration.ofMinutes(periodoArchivo));
+        }
+        CountDownLatch fin = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            archivador.close();
+            servidor.detener(5);
+            fin.countDown();
+        }));
+        servidor.iniciar();
+        System.out.println("Servidor HTTP escuchando en el puerto " + servidor.getPuerto());
+        fin.await();
+        return 0;
+    }
+
+    private static void mostrarUso() {
+        System.err.println("Uso: importar <archivo.csv|tsv> [rechazos.tsv]");
+        System.err.println("     exportar <archivo.csv|json>");
+        System.err.println("     servidor [puerto]");
+        System.err.println("     archivar [diasRetencion]");
+    }
+}
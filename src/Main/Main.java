@@ -4,10 +4,13 @@ package Main;
 
 public class Main {
 
-// Ejecuta la app creando AppMenu y llamando a run().
+// Con argumentos ejecuta un comando de LineaComandos; sin ellos abre el menú.
 
     
     public static void main(String[] args) {
+        if (args.length > 0) {
+            System.exit(LineaComandos.ejecutar(args));
+        }
         AppMenu app = new AppMenu();
         app.run();
     }
@@ -21,6 +21,11 @@ public class MenuDisplay {
         System.out.println("8. Eliminar codigo de barras por ID");
         System.out.println("9. Actualizar codigo de barras por ID de producto");
         System.out.println("10. Eliminar codigo de barras por ID de producto");
+        System.out.println("11. Buscar producto por codigo de barras");
+        System.out.println("12. Importar catalogo (CSV/TSV)");
+        System.out.println("13. Exportar catalogo (CSV/JSON)");
+        System.out.println("14. Resolver cesta de codigos de barras");
+        System.out.println("15. Archivar productos y codigos eliminados");
         System.out.println("0. Salir");
         System.out.print("Ingrese una opcion: ");
     }
@@ -1,16 +1,35 @@
 package Main;
 
 import Entities.Producto;
+import Entities.ProductoResumen;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CompletionException;
 import Entities.CodigoBarras;
+import Dao.Pagina;
+import Dao.ArchivoDAO;
+import Dao.ExportacionDAO;
+import Service.ArchivadorEliminados;
+import Service.ExportadorCatalogo;
+import Service.ImportadorCatalogo;
+import Service.ProductoServiceAsync;
 import Service.ProductoServiceImpl;
+import Service.ReporteArchivo;
+import Service.ReporteExportacion;
+import Service.ReporteImportacion;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 
 // Controla las operaciones del menú y coordina acciones con el servicio.
 
 
 public class MenuHandler {
+
+// Productos mostrados por página en los listados.
+
+    private static final int TAMANIO_PAGINA = 20;
   
     private final Scanner scanner;
 
@@ -62,39 +81,69 @@ public class MenuHandler {
     }
 
     
-// Lista productos o busca por nombre/marca.
+// Lista productos o busca por nombre/marca, de a una página por vez.
     
     public void listarProductos() {
         try {
-            System.out.print("¿Desea (1) listar todos o (2) buscar por nombre/marca? Ingrese opcion: ");
+            System.out.print("¿Desea (1) listar todos, (2) buscar por nombre/marca, (3) buscar por palabras o (4) ver detalle por ID? Ingrese opcion: ");
             int subopcion = Integer.parseInt(scanner.nextLine());
 
-            List<Producto> productos;
-            if (subopcion == 1) {
-                productos = productoService.getAll();
-            } else if (subopcion == 2) {
-                System.out.print("Ingrese texto a buscar: ");
-                String filtro = scanner.nextLine().trim();
-                productos = productoService.buscarPorNombreMarca(filtro);
-            } else {
-                System.out.println("Opcion invalida.");
+            if (subopcion == 4) {
+                System.out.print("ID del producto: ");
+                Producto producto = productoService.getById(Integer.parseInt(scanner.nextLine().trim()));
+                if (producto == null) {
+                    System.out.println("Producto no encontrado.");
+                } else {
+                    mostrarProducto(producto);
+                }
                 return;
             }
 
-            if (productos.isEmpty()) {
-                System.out.println("No se encontraron productos.");
+            if (subopcion == 3) {
+                System.out.print("Ingrese palabras a buscar: ");
+                List<Producto> productos = productoService.buscarTexto(scanner.nextLine().trim(), TAMANIO_PAGINA);
+                if (productos.isEmpty()) {
+                    System.out.println("No se encontraron productos.");
+                }
+                for (Producto p : productos) {
+                    mostrarProducto(p);
+                }
                 return;
             }
 
-            for (Producto p : productos) {
-                System.out.println("ID: " + p.getId() + ", Nombre: " + p.getNombre() +
-                        ", Marca: " + p.getMarca() + ", Categoria: " + p.getCategoria()+
-                        ", Precio: " + p.getPrecio() + ", Peso: " + p.getPeso());
-                if (p.getCodBarras() != null) {
-                    System.out.println("   Tipo: " + p.getCodBarras().getTipo() +
-                            " Valor: " + p.getCodBarras().getValor() + " Fecha: " + p.getCodBarras().getFechaAsignacion() +
-                            " Observaciones: " + p.getCodBarras().getObservaciones());
+            String filtro = null;
+            if (subopcion == 2) {
+                System.out.print("Ingrese texto a buscar: ");
+                filtro = scanner.nextLine().trim();
+            } else if (subopcion != 1) {
+                System.out.println("Opcion invalida.");
+                return;
+            }
+
+            int cursor = 0;
+            int mostrados = 0;
+            while (true) {
+                Pagina<ProductoResumen> pagina = (filtro == null)
+                        ? productoService.listarResumenPagina(cursor, TAMANIO_PAGINA)
+                        : productoService.buscarResumenPorNombreMarcaPagina(filtro, cursor, TAMANIO_PAGINA);
+
+                for (ProductoResumen p : pagina.getItems()) {
+                    mostrarResumen(p);
                 }
+                mostrados += pagina.getItems().size();
+
+                if (!pagina.hayMas()) {
+                    break;
+                }
+                System.out.print("-- " + mostrados + " mostrados. Enter para ver mas, 'q' para terminar: ");
+                if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                    return;
+                }
+                cursor = pagina.getSiguienteCursor();
+            }
+
+            if (mostrados == 0) {
+                System.out.println("No se encontraron productos.");
             }
         } catch (Exception e) {
             System.err.println("Error al listar productos: " + e.getMessage());
@@ -284,6 +333,109 @@ public class MenuHandler {
         }
     }
 
+// Busca el producto correspondiente a un código de barras escaneado.
+
+    public void buscarPorCodBarras() {
+        try {
+            System.out.print("Valor del codigo de barras: ");
+            String valor = scanner.nextLine().trim();
+            Producto p = productoService.buscarPorCodigoBarras(valor);
+            if (p == null) {
+                System.out.println("No hay producto con ese codigo de barras.");
+                return;
+            }
+            mostrarProducto(p);
+        } catch (Exception e) {
+            System.err.println("Error al buscar por codigo de barras: " + e.getMessage());
+        }
+    }
+
+// Importa un catálogo CSV/TSV; las filas rechazadas quedan en un archivo aparte.
+
+    public void importarCatalogo() {
+        try {
+            System.out.print("Ruta del archivo CSV/TSV: ");
+            String ruta = scanner.nextLine().trim();
+            System.out.print("Archivo de rechazos (enter = " + ruta + ".rechazos.tsv): ");
+            String rutaRechazos = scanner.nextLine().trim();
+            if (rutaRechazos.isEmpty()) {
+                rutaRechazos = ruta + ".rechazos.tsv";
+            }
+            ReporteImportacion reporte = new ImportadorCatalogo(productoService)
+                    .importar(Path.of(ruta), Path.of(rutaRechazos));
+            System.out.println(reporte);
+            if (reporte.getRechazadas() > 0) {
+                System.out.println("Filas rechazadas en: " + rutaRechazos);
+            }
+        } catch (Exception e) {
+            System.err.println("Error al importar catalogo: " + e.getMessage());
+        }
+    }
+
+// Exporta el catálogo a CSV o JSON (según la extensión del archivo).
+
+    public void exportarCatalogo() {
+        try {
+            System.out.print("Archivo destino (.csv o .json): ");
+            Path destino = Path.of(scanner.nextLine().trim());
+            ReporteExportacion reporte = new ExportadorCatalogo(new ExportacionDAO())
+                    .exportar(destino, ExportadorCatalogo.Formato.deArchivo(destino));
+            System.out.println(reporte);
+        } catch (Exception e) {
+            System.err.println("Error al exportar catalogo: " + e.getMessage());
+        }
+    }
+
+// Mueve al archivo las bajas más viejas que la retención elegida.
+
+    public void archivarEliminados() {
+        try {
+            System.out.print("Dias de retencion (enter = " + ArchivadorEliminados.RETENCION_DIAS_DEFAULT + "): ");
+            String dias = scanner.nextLine().trim();
+            int retencion = dias.isEmpty() ? ArchivadorEliminados.RETENCION_DIAS_DEFAULT : Integer.parseInt(dias);
+            ReporteArchivo reporte = new ArchivadorEliminados(new ArchivoDAO(), Duration.ofDays(retencion),
+                    ArchivadorEliminados.TAMANIO_LOTE_DEFAULT, ArchivadorEliminados.PAUSA_MS_DEFAULT).archivar();
+            System.out.println(reporte);
+        } catch (NumberFormatException e) {
+            System.err.println("Dias invalidos.");
+        } catch (Exception e) {
+            System.err.println("Error al archivar eliminados: " + e.getMessage());
+        }
+    }
+
+// Resuelve de una vez una cesta de códigos escaneados (separados por coma),
+// con las búsquedas en paralelo.
+
+    public void resolverCesta() {
+        try {
+            System.out.print("Codigos de barras separados por coma: ");
+            List<String> valores = new ArrayList<>();
+            for (String valor : scanner.nextLine().split(",")) {
+                if (!valor.trim().isEmpty()) {
+                    valores.add(valor.trim());
+                }
+            }
+            List<Producto> productos;
+            try (ProductoServiceAsync async = new ProductoServiceAsync(productoService)) {
+                productos = async.resolverCesta(valores).join();
+            }
+            double total = 0;
+            for (int i = 0; i < valores.size(); i++) {
+                Producto p = productos.get(i);
+                if (p == null) {
+                    System.out.println(valores.get(i) + ": sin producto");
+                } else {
+                    System.out.println(valores.get(i) + ": " + p.getNombre() + " (" + p.getMarca() + ") $" + p.getPrecio());
+                    total += p.getPrecio();
+                }
+            }
+            System.out.println("Total: $" + total);
+        } catch (Exception e) {
+            Throwable causa = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            System.err.println("Error al resolver la cesta: " + causa.getMessage());
+        }
+    }
+
     // Eliminar codigo de barra por producto
      
     public void eliminarCodBarrasPorProducto() {
@@ -310,6 +462,27 @@ public class MenuHandler {
         }
     }
 
+// Imprime un producto y, si tiene, su código de barras.
+
+
+    private void mostrarProducto(Producto p) {
+        System.out.println("ID: " + p.getId() + ", Nombre: " + p.getNombre() +
+                ", Marca: " + p.getMarca() + ", Categoria: " + p.getCategoria()+
+                ", Precio: " + p.getPrecio() + ", Peso: " + p.getPeso());
+        if (p.getCodBarras() != null) {
+            System.out.println("   Tipo: " + p.getCodBarras().getTipo() +
+                    " Valor: " + p.getCodBarras().getValor() + " Fecha: " + p.getCodBarras().getFechaAsignacion() +
+                    " Observaciones: " + p.getCodBarras().getObservaciones());
+        }
+    }
+
+// Imprime una fila del listado resumido (solo las columnas de ProductoResumen).
+
+    private void mostrarResumen(ProductoResumen p) {
+        System.out.println("ID: " + p.getId() + ", Nombre: " + p.getNombre() +
+                ", Marca: " + p.getMarca() + ", Precio: " + p.getPrecio());
+    }
+
  // Crea un objeto CodigoBarras desde consola.
 
     
@@ -327,6 +500,8 @@ public class MenuHandler {
     }
 
 // Maneja actualización/agregado de código de barras dentro de actualizarProducto().
+// Solo modifica el objeto: productoService.actualizar() lo guarda junto con el
+// producto en la misma transacción.
   
     
     private void actualizarCodBarrasDeProducto(Producto p) throws Exception {
@@ -344,14 +519,11 @@ public class MenuHandler {
                 if (!valor.isEmpty()) {
                     p.getCodBarras().setValor(valor);
                 }
-
-                productoService.getCodigoBarrasService().actualizar(p.getCodBarras());
             }
         } else {
             System.out.print("El producto no tiene codigo de barras asignado. ¿Desea agregar uno? (s/n): ");
             if (scanner.nextLine().equalsIgnoreCase("s")) {
                 CodigoBarras nuevoCB = crearCodBarras();
-                productoService.getCodigoBarrasService().insertar(nuevoCB);
                 p.setCodBarras(nuevoCB);
             }
         }
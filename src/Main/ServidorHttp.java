@@ -0,0 +1,464 @@
+package Main;
+
+import Dao.ConflictoVersionException;
+import Dao.Pagina;
+import Entities.CodigoBarras;
+import Entities.Producto;
+import Entities.ProductoResumen;
+import Service.CodigoBarrasServiceImpl;
+import Service.ProductoServiceImpl;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLTimeoutException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Modo servidor: las mismas operaciones del menú (MenuHandler) expuestas como
+// endpoints JSON sobre el HttpServer del JDK. Cada request corre en su propio
+// hilo virtual, así una request que espera a la base no ocupa un hilo de
+// plataforma y el servidor aguanta miles de conexiones simultáneas; el límite
+// real lo pone el pool de conexiones (las requests esperan su turno en él).
+//
+// Endpoints:
+//   GET    /productos                      página por ID (?despues=&tamanio=)
+//   GET    /productos?filtro=              búsqueda por nombre o marca
+//   GET    /productos?resumen[&filtro=]    idem, solo id/nombre/marca/precio
+//   GET    /productos?texto=[&limite=]     búsqueda por palabras
+//   GET    /productos?codigoBarras=        producto por valor de código
+//   POST   /productos                      alta (con codigoBarras opcional)
+//   GET    /productos/{id}
+//   PUT    /productos/{id}                 actualiza los campos enviados
+//   DELETE /productos/{id}
+//   DELETE /productos/{id}/codigo-barras   desasocia y elimina su código
+//   GET    /codigos-barras[?valor=]
+//   POST   /codigos-barras
+//   GET    /codigos-barras/{id}
+//   PUT    /codigos-barras/{id}
+//   DELETE /codigos-barras/{id}
+//
+// Errores: {"error": "..."} con 400 (datos inválidos), 404 (no existe),
+// 405 (método), 409 (conflicto de versión tras agotar los reintentos),
+// 503 (pool de conexiones agotado) o 500.
+
+public class ServidorHttp {
+
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final int MAX_CUERPO = 1024 * 1024;
+
+    private final ProductoServiceImpl productoService;
+    private final CodigoBarrasServiceImpl codigoBarrasService;
+    private final HttpServer servidor;
+    private final ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ServidorHttp(ProductoServiceImpl productoService, int puerto, int backlog) throws IOException {
+        if (productoService == null) {
+            throw new IllegalArgumentException("ProductoService no puede ser null");
+        }
+        this.productoService = productoService;
+        this.codigoBarrasService = productoService.getCodigoBarrasService();
+        this.servidor = HttpServer.create(new InetSocketAddress(puerto), backlog);
+        this.servidor.createContext("/productos", this::atender);
+        this.servidor.createContext("/codigos-barras", this::atender);
+        this.servidor.setExecutor(hilos);
+    }
+
+    public void iniciar() {
+        servidor.start();
+    }
+
+// Deja de aceptar conexiones y espera hasta "segundos" a las requests en curso.
+
+    public void detener(int segundos) {
+        servidor.stop(segundos);
+        hilos.shutdown();
+    }
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    private void atender(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Respuesta respuesta;
+            try {
+                respuesta = despachar(exchange);
+            } catch (NoEncontrado e) {
+                respuesta = error(404, e.getMessage());
+            } catch (MetodoNoPermitido e) {
+                respuesta = error(405, "Método no permitido: " + exchange.getRequestMethod());
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                respuesta = error(400, e.getMessage());
+            } catch (Exception e) {
+                respuesta = errorDeBase(exchange, e);
+            }
+            enviar(exchange, respuesta);
+        }
+    }
+
+// Los DAO envuelven las SQLException en Exception: el estado sale de la causa.
+// El resto es un error interno: el detalle (texto del driver, SQL) queda en
+// el log del servidor y el cliente recibe un mensaje genérico.
+
+    private static Respuesta errorDeBase(HttpExchange exchange, Exception e) {
+        ConflictoVersionException conflicto = causaDe(e, ConflictoVersionException.class);
+        if (conflicto != null) {
+            return error(409, conflicto.getMessage());
+        }
+        SQLTimeoutException timeout = causaDe(e, SQLTimeoutException.class);
+        if (timeout != null) {
+            return error(503, "La base de datos no respondió a tiempo, reintente más tarde");
+        }
+        System.err.println("Error interno en " + exchange.getRequestMethod() + " "
+                + exchange.getRequestURI().getPath() + ": " + e.getMessage());
+        e.printStackTrace();
+        return error(500, "Error interno del servidor");
+    }
+
+// Primera excepción del tipo pedido en la cadena de causas (incluida e), o null.
+
+    private static <T extends Throwable> T causaDe(Throwable e, Class<T> tipo) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (tipo.isInstance(t)) {
+                return tipo.cast(t);
+            }
+        }
+        return null;
+    }
+
+    private Respuesta despachar(HttpExchange exchange) throws Exception {
+        String metodo = exchange.getRequestMethod();
+        String[] partes = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/+");
+        Map<String, String> query = parsearQuery(exchange.getRequestURI().getRawQuery());
+
+        if (partes[0].equals("productos")) {
+            if (partes.length == 1) {
+                return switch (metodo) {
+                    case "GET" -> listarProductos(query);
+                    case "POST" -> crearProducto(leerCuerpo(exchange));
+                    default -> throw new MetodoNoPermitido();
+                };
+            }
+            int id = parsearId(partes[1]);
+            if (partes.length == 2) {
+                return switch (metodo) {
+                    case "GET" -> producto(200, buscarProducto(id));
+                    case "PUT" -> actualizarProducto(id, leerCuerpo(exchange));
+                    case "DELETE" -> {
+                        productoService.eliminar(id);
+                        yield new Respuesta(204, null);
+                    }
+                    default -> throw new MetodoNoPermitido();
+                };
+            }
+            if (partes.length == 3 && partes[2].equals("codigo-barras")) {
+                if (!metodo.equals("DELETE")) {
+                    throw new MetodoNoPermitido();
+                }
+                Producto producto = buscarProducto(id);
+                if (producto.getCodBarras() == null) {
+                    throw new NoEncontrado("El producto no tiene código de barras");
+                }
+                productoService.eliminarCodigoBarrasDeProducto(id, producto.getCodBarras().getId());
+                return new Respuesta(204, null);
+            }
+        } else if (partes[0].equals("codigos-barras")) {
+            if (partes.length == 1) {
+                return switch (metodo) {
+                    case "GET" -> listarCodigosBarras(query);
+                    case "POST" -> crearCodigoBarras(leerCuerpo(exchange));
+                    default -> throw new MetodoNoPermitido();
+                };
+            }
+            if (partes.length == 2) {
+                int id = parsearId(partes[1]);
+                return switch (metodo) {
+                    case "GET" -> codigoBarras(200, buscarCodigoBarras(id));
+                    case "PUT" -> actualizarCodigoBarras(id, leerCuerpo(exchange));
+                    case "DELETE" -> {
+                        codigoBarrasService.eliminar(id);
+                        yield new Respuesta(204, null);
+                    }
+                    default -> throw new MetodoNoPermitido();
+                };
+            }
+        }
+        throw new NoEncontrado("Ruta inexistente: " + exchange.getRequestURI().getPath());
+    }
+
+// Productos
+
+    private Respuesta listarProductos(Map<String, String> query) throws Exception {
+        StringBuilder sb = new StringBuilder(4096);
+        if (query.containsKey("codigoBarras")) {
+            Producto producto = productoService.buscarPorCodigoBarras(query.get("codigoBarras"));
+            if (producto == null) {
+                throw new NoEncontrado("No hay producto con ese código de barras");
+            }
+            return producto(200, producto);
+        }
+        if (query.containsKey("texto")) {
+            int limite = query.containsKey("limite") ? Integer.parseInt(query.get("limite")) : 20;
+            Json.productos(sb, productoService.buscarTexto(query.get("texto"), limite));
+            return new Respuesta(200, sb);
+        }
+
+        int despues = query.containsKey("despues") ? Integer.parseInt(query.get("despues")) : 0;
+        int tamanio = query.containsKey("tamanio") ? Integer.parseInt(query.get("tamanio")) : 50;
+        if (query.containsKey("resumen")) {
+            Pagina<ProductoResumen> resumenes = query.containsKey("filtro")
+                    ? productoService.buscarResumenPorNombreMarcaPagina(query.get("filtro"), despues, tamanio)
+                    : productoService.listarResumenPagina(despues, tamanio);
+            sb.append("{\"items\":");
+            Json.resumenes(sb, resumenes.getItems());
+            sb.append(",\"siguiente\":").append(resumenes.getSiguienteCursor()).append('}');
+            return new Respuesta(200, sb);
+        }
+        Pagina<Producto> pagina = query.containsKey("filtro")
+                ? productoService.buscarPorNombreMarcaPagina(query.get("filtro"), despues, tamanio)
+                : productoService.listarPagina(despues, tamanio);
+        sb.append("{\"items\":");
+        Json.productos(sb, pagina.getItems());
+        sb.append(",\"siguiente\":").append(pagina.getSiguienteCursor()).append('}');
+        return new Respuesta(200, sb);
+    }
+
+    private Respuesta crearProducto(Map<String, Object> datos) throws Exception {
+        Producto producto = new Producto(0, texto(datos, "nombre"), texto(datos, "marca"),
+                texto(datos, "categoria"), numero(datos, "precio"), numero(datos, "peso"));
+        if (datos.get("codigoBarras") != null) {
+            CodigoBarras codigoBarras = new CodigoBarras();
+            aplicarCodigoBarras(codigoBarras, objeto(datos, "codigoBarras"));
+            producto.setCodBarras(codigoBarras);
+        }
+        productoService.insertar(producto);
+        return producto(201, producto);
+    }
+
+// Igual que la opción del menú: solo cambia lo que viene en el JSON. Si trae
+// "codigoBarras", se actualiza el del producto o se le asigna uno nuevo.
+// Si otro escribió el producto en el medio, modificar relee y reaplica.
+
+    private Respuesta actualizarProducto(int id, Map<String, Object> datos) throws Exception {
+        Producto producto = productoService.modificar(id, p -> aplicarProducto(p, datos));
+        if (producto == null) {
+            throw new NoEncontrado("Producto no encontrado con ID: " + id);
+        }
+        return producto(200, producto);
+    }
+
+    private static void aplicarProducto(Producto producto, Map<String, Object> datos) {
+        if (datos.containsKey("nombre")) {
+            producto.setNombre(texto(datos, "nombre"));
+        }
+        if (datos.containsKey("marca")) {
+            producto.setMarca(texto(datos, "marca"));
+        }
+        if (datos.containsKey("categoria")) {
+            producto.setCategoria(texto(datos, "categoria"));
+        }
+        if (datos.containsKey("precio")) {
+            producto.setPrecio(numero(datos, "precio"));
+        }
+        if (datos.containsKey("peso")) {
+            producto.setPeso(numero(datos, "peso"));
+        }
+        if (datos.get("codigoBarras") != null) {
+            if (producto.getCodBarras() == null) {
+                producto.setCodBarras(new CodigoBarras());
+            }
+            aplicarCodigoBarras(producto.getCodBarras(), objeto(datos, "codigoBarras"));
+        }
+    }
+
+    private Producto buscarProducto(int id) throws Exception {
+        Producto producto = productoService.getById(id);
+        if (producto == null) {
+            throw new NoEncontrado("Producto no encontrado con ID: " + id);
+        }
+        return producto;
+    }
+
+// Códigos de barras
+
+    private Respuesta listarCodigosBarras(Map<String, String> query) throws Exception {
+        if (query.containsKey("valor")) {
+            CodigoBarras codigoBarras = codigoBarrasService.buscarPorValor(query.get("valor"));
+            if (codigoBarras == null) {
+                throw new NoEncontrado("Código de barras no encontrado: " + query.get("valor"));
+            }
+            return codigoBarras(200, codigoBarras);
+        }
+        List<CodigoBarras> codigos = codigoBarrasService.getAll();
+        StringBuilder sb = new StringBuilder(64 + codigos.size() * 128);
+        Json.codigosBarras(sb, codigos);
+        return new Respuesta(200, sb);
+    }
+
+    private Respuesta crearCodigoBarras(Map<String, Object> datos) throws Exception {
+        CodigoBarras codigoBarras = new CodigoBarras();
+        aplicarCodigoBarras(codigoBarras, datos);
+        codigoBarrasService.insertar(codigoBarras);
+        return codigoBarras(201, codigoBarras);
+    }
+
+    private Respuesta actualizarCodigoBarras(int id, Map<String, Object> datos) throws Exception {
+        CodigoBarras codigoBarras = codigoBarrasService.modificar(id, c -> aplicarCodigoBarras(c, datos));
+        if (codigoBarras == null) {
+            throw new NoEncontrado("Código de barras no encontrado con ID: " + id);
+        }
+        return codigoBarras(200, codigoBarras);
+    }
+
+    private CodigoBarras buscarCodigoBarras(int id) throws Exception {
+        CodigoBarras codigoBarras = codigoBarrasService.getById(id);
+        if (codigoBarras == null) {
+            throw new NoEncontrado("Código de barras no encontrado con ID: " + id);
+        }
+        return codigoBarras;
+    }
+
+// Copia al código los campos presentes en el JSON; la validación queda a
+// cargo del servicio.
+
+    private static void aplicarCodigoBarras(CodigoBarras codigoBarras, Map<String, Object> datos) {
+        if (datos.containsKey("valor")) {
+            codigoBarras.setValor(texto(datos, "valor"));
+        }
+        if (datos.containsKey("tipo")) {
+            codigoBarras.setTipo(texto(datos, "tipo"));
+        }
+        if (datos.containsKey("fechaAsignacion")) {
+            String fecha = texto(datos, "fechaAsignacion");
+            codigoBarras.setFechaAsignacion(fecha == null ? null : LocalDate.parse(fecha));
+        }
+        if (datos.containsKey("observaciones")) {
+            codigoBarras.setObservaciones(texto(datos, "observaciones"));
+        }
+    }
+
+// Lectura y escritura
+
+    private static Map<String, Object> leerCuerpo(HttpExchange exchange) throws IOException {
+        try (InputStream entrada = exchange.getRequestBody()) {
+            byte[] bytes = entrada.readNBytes(MAX_CUERPO + 1);
+            if (bytes.length > MAX_CUERPO) {
+                throw new IllegalArgumentException("El cuerpo supera " + MAX_CUERPO + " bytes");
+            }
+            return Json.parsearObjeto(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void enviar(HttpExchange exchange, Respuesta respuesta) throws IOException {
+        if (respuesta.cuerpo == null) {
+            exchange.sendResponseHeaders(respuesta.estado, -1);
+            return;
+        }
+        byte[] bytes = respuesta.cuerpo.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(respuesta.estado, bytes.length);
+        try (OutputStream salida = exchange.getResponseBody()) {
+            salida.write(bytes);
+        }
+    }
+
+    private static Respuesta producto(int estado, Producto producto) {
+        StringBuilder sb = new StringBuilder(256);
+        Json.producto(sb, producto);
+        return new Respuesta(estado, sb);
+    }
+
+    private static Respuesta codigoBarras(int estado, CodigoBarras codigoBarras) {
+        StringBuilder sb = new StringBuilder(160);
+        Json.codigoBarras(sb, codigoBarras);
+        return new Respuesta(estado, sb);
+    }
+
+    private static Respuesta error(int estado, String mensaje) {
+        StringBuilder sb = new StringBuilder(64);
+        sb.append("{\"error\":");
+        Json.texto(sb, mensaje == null ? "Error interno" : mensaje);
+        sb.append('}');
+        return new Respuesta(estado, sb);
+    }
+
+    private static Map<String, String> parsearQuery(String query) {
+        Map<String, String> parametros = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parametros;
+        }
+        for (String par : query.split("&")) {
+            int igual = par.indexOf('=');
+            String clave = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            parametros.put(URLDecoder.decode(clave, StandardCharsets.UTF_8),
+                    URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return parametros;
+    }
+
+    private static int parsearId(String texto) {
+        try {
+            return Integer.parseInt(texto);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("ID inválido: " + texto);
+        }
+    }
+
+    private static String texto(Map<String, Object> datos, String campo) {
+        Object valor = datos.get(campo);
+        if (valor != null && !(valor instanceof String)) {
+            throw new IllegalArgumentException("El campo '" + campo + "' debe ser texto");
+        }
+        return (String) valor;
+    }
+
+    private static double numero(Map<String, Object> datos, String campo) {
+        Object valor = datos.get(campo);
+        if (!(valor instanceof Double) || !Double.isFinite((Double) valor)) {
+            throw new IllegalArgumentException("El campo '" + campo + "' debe ser numérico");
+        }
+        return (Double) valor;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> objeto(Map<String, Object> datos, String campo) {
+        Object valor = datos.get(campo);
+        if (!(valor instanceof Map)) {
+            throw new IllegalArgumentException("El campo '" + campo + "' debe ser un objeto");
+        }
+        return (Map<String, Object>) valor;
+    }
+
+    private static final class Respuesta {
+        private final int estado;
+        private final CharSequence cuerpo;
+
+        private Respuesta(int estado, CharSequence cuerpo) {
+            this.estado = estado;
+            this.cuerpo = cuerpo;
+        }
+    }
+
+    private static final class NoEncontrado extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private NoEncontrado(String mensaje) {
+            super(mensaje);
+        }
+    }
+
+    private static final class MetodoNoPermitido extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,141 @@
+package Service;
+
+import Dao.ArchivoDAO;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Mueve al archivo los productos y códigos de barras dados de baja hace más de
+// "retencion" (ver ArchivoDAO), para que las tablas y sus índices no crezcan
+// con filas que las consultas siempre descartan.
+// - Lotes de "tamanioLote" filas, cada uno en su propia transacción corta.
+// - Entre lotes espera "pausa" para no competir con la carga normal.
+// - Primero productos y después códigos: así en la misma pasada se archivan
+//   los códigos que solo referenciaban productos ya archivados.
+// Se puede correr una pasada (archivar) o dejarlo periódico en segundo plano
+// (iniciar). Ajustable con -Darchivo.retencionDias, -Darchivo.lote y
+// -Darchivo.pausaMs.
+
+public class ArchivadorEliminados implements AutoCloseable {
+
+    public static final int RETENCION_DIAS_DEFAULT = Integer.getInteger("archivo.retencionDias", 30);
+    public static final int TAMANIO_LOTE_DEFAULT = Integer.getInteger("archivo.lote", 500);
+    public static final long PAUSA_MS_DEFAULT = Long.getLong("archivo.pausaMs", 50L);
+
+    private final ArchivoDAO archivoDAO;
+    private final Duration retencion;
+    private final int tamanioLote;
+    private final long pausaMillis;
+
+// Una sola pasada a la vez en todo el proceso: el menú, la línea de comandos
+// y el segundo plano crean cada uno su archivador y pueden coincidir.
+
+    private static final Object PASADA = new Object();
+    private ScheduledExecutorService programador;
+
+    public ArchivadorEliminados(ArchivoDAO archivoDAO) {
+        this(archivoDAO, Duration.ofDays(RETENCION_DIAS_DEFAULT), TAMANIO_LOTE_DEFAULT, PAUSA_MS_DEFAULT);
+    }
+
+    public ArchivadorEliminados(ArchivoDAO archivoDAO, Duration retencion, int tamanioLote, long pausaMillis) {
+        if (archivoDAO == null) {
+            throw new IllegalArgumentException("ArchivoDAO no puede ser null");
+        }
+        if (retencion == null || retencion.isNegative()) {
+            throw new IllegalArgumentException("La retención no puede ser null ni negativa");
+        }
+        if (tamanioLote <= 0 || pausaMillis < 0) {
+            throw new IllegalArgumentException("Tamaño de lote o pausa inválidos");
+        }
+        this.archivoDAO = archivoDAO;
+        this.retencion = retencion;
+        this.tamanioLote = tamanioLote;
+        this.pausaMillis = pausaMillis;
+    }
+
+// Archiva todo lo eliminado hace más de "retencion" según el reloj de la base. Si el hilo se
+// interrumpe, termina después del lote en curso y devuelve lo hecho.
+
+    public ReporteArchivo archivar() throws Exception {
+        synchronized (PASADA) {
+            long inicio = System.currentTimeMillis();
+            long retencionSegundos = retencion.getSeconds();
+            long[] lotes = new long[1];
+            long productos = archivarTabla(ArchivoDAO.Tabla.PRODUCTO, retencionSegundos, lotes);
+            long codigos = archivarTabla(ArchivoDAO.Tabla.CODIGO_BARRAS, retencionSegundos, lotes);
+            return new ReporteArchivo(productos, codigos, lotes[0], System.currentTimeMillis() - inicio);
+        }
+    }
+
+// Corre archivar() cada "periodo" en un hilo daemon, hasta close().
+
+    public synchronized void iniciar(Duration periodo) {
+        if (periodo == null || periodo.isZero() || periodo.isNegative()) {
+            throw new IllegalArgumentException("El período debe ser positivo");
+        }
+        if (programador != null) {
+            throw new IllegalStateException("El archivo periódico ya está iniciado");
+        }
+        programador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "archivador-eliminados");
+            t.setDaemon(true);
+            return t;
+        });
+        programador.scheduleWithFixedDelay(this::archivarEnSegundoPlano,
+                periodo.toMillis(), periodo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (programador != null) {
+            programador.shutdownNow();
+            programador = null;
+        }
+    }
+
+    private void archivarEnSegundoPlano() {
+        try {
+            ReporteArchivo reporte = archivar();
+            if (reporte.getFilas() > 0) {
+                System.out.println(reporte);
+            }
+        } catch (Exception e) {
+            System.err.println("Error al archivar eliminados: " + e.getMessage());
+        }
+    }
+
+// Recorre la tabla por ID. hastaId <= despuesDeId no debería pasar; se corta
+// ahí para no repetir el mismo rango para siempre.
+
+    private long archivarTabla(ArchivoDAO.Tabla tabla, long retencionSegundos, long[] lotes) throws Exception {
+        long movidas = 0;
+        int despuesDeId = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            int hastaId = archivoDAO.finDeLote(tabla, retencionSegundos, despuesDeId, tamanioLote);
+            if (hastaId <= despuesDeId) {
+                break;
+            }
+            movidas += archivoDAO.archivarRango(tabla, retencionSegundos, despuesDeId, hastaId);
+            lotes[0]++;
+            despuesDeId = hastaId;
+            if (!pausar()) {
+                break;
+            }
+        }
+        return movidas;
+    }
+
+    private boolean pausar() {
+        if (pausaMillis == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pausaMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
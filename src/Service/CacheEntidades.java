@@ -0,0 +1,222 @@
+package Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+// Cache read-through acotada de entidades por ID, delante de los DAOs.
+// - Desaloja la entrada menos usada al superar "capacidad" (LRU).
+// - Descarta entradas más viejas que ttlMillis.
+// - Guarda y devuelve copias, así los cambios que la UI hace sobre un
+//   resultado no llegan a la cache hasta que se persisten.
+// Los servicios la invalidan en cada escritura.
+
+public class CacheEntidades<T> {
+
+// Carga la entidad desde el DAO cuando no está en cache.
+
+    @FunctionalInterface
+    public interface Cargador<T> {
+        T cargar(int id) throws Exception;
+    }
+
+// Carga de una vez las entidades que faltan en cache (por ejemplo, con un
+// getByIds del DAO). Los IDs que no existen no van en el mapa.
+
+    @FunctionalInterface
+    public interface CargadorVarios<T> {
+        Map<Integer, T> cargar(Collection<Integer> ids) throws Exception;
+    }
+
+    private final int capacidad;
+    private final long ttlMillis;
+    private final UnaryOperator<T> copiador;
+    private final LinkedHashMap<Integer, Entrada<T>> entradas;
+
+// Se incrementa en cada invalidación. Una carga que empezó antes de una
+// invalidación no se guarda, para no volver a cachear un valor viejo.
+
+    private long generacion;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+    private final LongAdder expiraciones = new LongAdder();
+
+    public CacheEntidades(int capacidad, long ttlMillis, UnaryOperator<T> copiador) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad de la cache debe ser mayor a 0");
+        }
+        if (copiador == null) {
+            throw new IllegalArgumentException("El copiador no puede ser null");
+        }
+        this.capacidad = capacidad;
+        this.ttlMillis = ttlMillis;
+        this.copiador = copiador;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entrada<T>> eldest) {
+                if (size() > CacheEntidades.this.capacidad) {
+                    desalojos.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+// Devuelve una copia de la entidad cacheada o la carga, la cachea y la devuelve.
+
+    public T obtener(int id, Cargador<T> cargador) throws Exception {
+        long generacionInicial;
+        synchronized (this) {
+            Entrada<T> entrada = entradas.get(id);
+            if (entrada != null) {
+                if (!entrada.vencida(ttlMillis)) {
+                    hits.increment();
+                    return copiador.apply(entrada.valor);
+                }
+                entradas.remove(id);
+                expiraciones.increment();
+            }
+            generacionInicial = generacion;
+        }
+
+        misses.increment();
+        T valor = cargador.cargar(id);
+        if (valor != null) {
+            T copia = copiador.apply(valor);
+            synchronized (this) {
+                if (generacion == generacionInicial) {
+                    entradas.put(id, new Entrada<>(copia));
+                }
+            }
+        }
+        return valor;
+    }
+
+// Como obtener, para varios IDs: los que están en cache se copian y los
+// demás se piden juntos en una sola llamada al cargador.
+
+    public Map<Integer, T> obtenerVarios(Collection<Integer> ids, CargadorVarios<T> cargador) throws Exception {
+        Map<Integer, T> resultado = new HashMap<>(ids.size() * 4 / 3 + 1);
+        Set<Integer> faltantes = new LinkedHashSet<>();
+        long generacionInicial;
+        synchronized (this) {
+            for (int id : ids) {
+                if (resultado.containsKey(id) || faltantes.contains(id)) {
+                    continue;
+                }
+                Entrada<T> entrada = entradas.get(id);
+                if (entrada != null) {
+                    if (!entrada.vencida(ttlMillis)) {
+                        hits.increment();
+                        resultado.put(id, copiador.apply(entrada.valor));
+                        continue;
+                    }
+                    entradas.remove(id);
+                    expiraciones.increment();
+                }
+                faltantes.add(id);
+            }
+            generacionInicial = generacion;
+        }
+        if (faltantes.isEmpty()) {
+            return resultado;
+        }
+
+        misses.add(faltantes.size());
+        Map<Integer, T> cargados = cargador.cargar(faltantes);
+        synchronized (this) {
+            if (generacion == generacionInicial) {
+                for (Map.Entry<Integer, T> cargado : cargados.entrySet()) {
+                    entradas.put(cargado.getKey(), new Entrada<>(copiador.apply(cargado.getValue())));
+                }
+            }
+        }
+        resultado.putAll(cargados);
+        return resultado;
+    }
+
+    public synchronized void invalidar(int id) {
+        generacion++;
+        entradas.remove(id);
+    }
+
+// Invalida todas las entradas que cumplen la condición (por ejemplo, los
+// productos que contienen un CodigoBarras modificado).
+
+    public synchronized void invalidarSi(Predicate<T> condicion) {
+        generacion++;
+        Iterator<Entrada<T>> it = entradas.values().iterator();
+        while (it.hasNext()) {
+            if (condicion.test(it.next().valor)) {
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void invalidarTodo() {
+        generacion++;
+        entradas.clear();
+    }
+
+    public synchronized int getTamanio() {
+        return entradas.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getDesalojos() {
+        return desalojos.sum();
+    }
+
+    public long getExpiraciones() {
+        return expiraciones.sum();
+    }
+
+// Proporción de lecturas servidas desde memoria (0 a 1).
+
+    public double getHitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : h / (double) total;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheEntidades [tamanio=" + getTamanio() + "/" + capacidad
+                + ", hits=" + getHits()
+                + ", misses=" + getMisses()
+                + ", hitRatio=" + String.format("%.3f", getHitRatio())
+                + ", desalojos=" + getDesalojos()
+                + ", expiraciones=" + getExpiraciones() + "]";
+    }
+
+    private static final class Entrada<T> {
+        private final T valor;
+        private final long cargadaEn;
+
+        private Entrada(T valor) {
+            this.valor = valor;
+            this.cargadaEn = System.currentTimeMillis();
+        }
+
+        private boolean vencida(long ttlMillis) {
+            return ttlMillis > 0 && System.currentTimeMillis() - cargadaEn > ttlMillis;
+        }
+    }
+}
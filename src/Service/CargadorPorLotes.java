@@ -0,0 +1,135 @@
+package Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Cargador por lotes con alcance de una operación (por ejemplo, resolver una
+// cesta). Junta en un solo getByIds las llamadas a getById que llegan a la vez
+// desde varios hilos:
+// - El primer hilo de un lote espera "ventana" a que se sumen los demás y
+//   ejecuta la consulta; si el lote se llena antes, la ejecuta quien lo llenó.
+// - Los demás hilos esperan el resultado de su ID.
+// - Un ID ya pedido se resuelve con el mismo resultado, sin volver a consultar.
+// Crear uno por operación: no se invalida, así que no sirve como cache global.
+
+public final class CargadorPorLotes<T> {
+
+    public static final int MAX_LOTE_DEFAULT = 128;
+    public static final long VENTANA_MICROS_DEFAULT = 1_000;
+
+    @FunctionalInterface
+    public interface Lote<T> {
+        Map<Integer, T> cargar(Collection<Integer> ids) throws Exception;
+    }
+
+    private final Lote<T> lote;
+    private final int maxLote;
+    private final long ventanaNanos;
+
+    private final Map<Integer, CompletableFuture<T>> pedidos = new HashMap<>();
+    private List<Integer> pendientes = new ArrayList<>();
+    private long consultas;
+
+    public CargadorPorLotes(Lote<T> lote, int maxLote, long ventanaMicros) {
+        if (lote == null) {
+            throw new IllegalArgumentException("El lote no puede ser null");
+        }
+        if (maxLote <= 0 || ventanaMicros < 0) {
+            throw new IllegalArgumentException("Tamaño de lote o ventana inválidos");
+        }
+        this.lote = lote;
+        this.maxLote = maxLote;
+        this.ventanaNanos = TimeUnit.MICROSECONDS.toNanos(ventanaMicros);
+    }
+
+    public CargadorPorLotes(Lote<T> lote) {
+        this(lote, MAX_LOTE_DEFAULT, VENTANA_MICROS_DEFAULT);
+    }
+
+// Devuelve la entidad con ese ID, o null si no existe.
+
+    public T getById(int id) throws Exception {
+        CompletableFuture<T> futuro;
+        boolean primero = false;
+        List<Integer> lleno = null;
+        synchronized (this) {
+            futuro = pedidos.get(id);
+            if (futuro == null) {
+                futuro = new CompletableFuture<>();
+                pedidos.put(id, futuro);
+                primero = pendientes.isEmpty();
+                pendientes.add(id);
+                if (pendientes.size() >= maxLote) {
+                    lleno = tomarPendientes();
+                }
+            }
+        }
+
+        if (lleno != null) {
+            ejecutar(lleno);
+        } else if (primero) {
+            LockSupport.parkNanos(ventanaNanos);
+            List<Integer> ids;
+            synchronized (this) {
+                ids = tomarPendientes();
+            }
+            if (!ids.isEmpty()) {
+                ejecutar(ids);
+            }
+        }
+        return esperar(futuro);
+    }
+
+// Cantidad de consultas (lotes) ejecutadas hasta ahora.
+
+    public synchronized long getConsultas() {
+        return consultas;
+    }
+
+    private List<Integer> tomarPendientes() {
+        List<Integer> ids = pendientes;
+        pendientes = new ArrayList<>();
+        if (!ids.isEmpty()) {
+            consultas++;
+        }
+        return ids;
+    }
+
+    private void ejecutar(List<Integer> ids) {
+        List<CompletableFuture<T>> futuros = new ArrayList<>(ids.size());
+        synchronized (this) {
+            for (int id : ids) {
+                futuros.add(pedidos.get(id));
+            }
+        }
+        try {
+            Map<Integer, T> cargados = lote.cargar(ids);
+            for (int i = 0; i < ids.size(); i++) {
+                futuros.get(i).complete(cargados.get(ids.get(i)));
+            }
+        } catch (Exception | Error e) {
+            for (CompletableFuture<T> futuro : futuros) {
+                futuro.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static <T> T esperar(CompletableFuture<T> futuro) throws Exception {
+        try {
+            return futuro.get();
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof Exception excepcion) {
+                throw excepcion;
+            }
+            throw (Error) causa;
+        }
+    }
+}
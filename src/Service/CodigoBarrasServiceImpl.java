@@ -1,7 +1,16 @@
 package Service;
 
+import java.sql.Connection;
+import Config.Metricas;
+import Config.MetricasOperacion;
+import java.util.Collection;
 import java.util.List;
-import Dao.GenericDAO;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+import Dao.CodigoBarrasDAO;
+import Dao.ConflictoVersionException;
 import Entities.CodigoBarras;
 
 //Servicio de negocio para CodigoBarras (Clase B).
@@ -9,9 +18,37 @@ import Entities.CodigoBarras;
  
 public class CodigoBarrasServiceImpl implements GenericService<CodigoBarras> {
 
-    private final GenericDAO<CodigoBarras> codigoBarrasDAO;
+    private final CodigoBarrasDAO codigoBarrasDAO;
 
-    public CodigoBarrasServiceImpl(GenericDAO<CodigoBarras> codigoBarrasDAO) {
+// Índice valor -> ID para los escaneos. Tamaño y TTL ajustables con -Dindice.codigos.*
+
+    private final IndiceCodigoBarras indicePorValor = new IndiceCodigoBarras(
+            Integer.getInteger("indice.codigos.max", 100_000),
+            Long.getLong("indice.codigos.ttlMs", 300_000L));
+
+// Cache read-through de getById. Tamaño y TTL ajustables con -Dcache.codigos.*
+
+    private final CacheEntidades<CodigoBarras> cache = new CacheEntidades<>(
+            Integer.getInteger("cache.codigos.max", 10_000),
+            Long.getLong("cache.codigos.ttlMs", 300_000L),
+            CodigoBarras::new);
+
+// Avisados con el ID de cada CodigoBarras modificado o eliminado (por ejemplo,
+// para invalidar productos cacheados que lo contienen).
+
+    private final List<IntConsumer> oyentesCambio = new CopyOnWriteArrayList<>();
+
+// Métricas por operación (latencia, llamadas, errores, filas), publicadas por JMX.
+
+    private static final MetricasOperacion M_INSERTAR = Metricas.operacion("CodigoBarrasService", "insertar");
+    private static final MetricasOperacion M_ACTUALIZAR = Metricas.operacion("CodigoBarrasService", "actualizar");
+    private static final MetricasOperacion M_ELIMINAR = Metricas.operacion("CodigoBarrasService", "eliminar");
+    private static final MetricasOperacion M_GET_BY_ID = Metricas.operacion("CodigoBarrasService", "getById");
+    private static final MetricasOperacion M_GET_BY_IDS = Metricas.operacion("CodigoBarrasService", "getByIds");
+    private static final MetricasOperacion M_GET_ALL = Metricas.operacion("CodigoBarrasService", "getAll");
+    private static final MetricasOperacion M_BUSCAR_POR_VALOR = Metricas.operacion("CodigoBarrasService", "buscarPorValor");
+
+    public CodigoBarrasServiceImpl(CodigoBarrasDAO codigoBarrasDAO) {
         if (codigoBarrasDAO == null) {
             throw new IllegalArgumentException("CodigoBarrasDAO no puede ser null");
         }
@@ -23,19 +60,66 @@ public class CodigoBarrasServiceImpl implements GenericService<CodigoBarras> {
   
     @Override
     public void insertar(CodigoBarras codigoBarras) throws Exception {
-        validateCodigoBarras(codigoBarras);
-        codigoBarrasDAO.insertar(codigoBarras);  // genera ID autoincrement
+        M_INSERTAR.medir(1, () -> {
+            validateCodigoBarras(codigoBarras);
+            codigoBarrasDAO.insertar(codigoBarras);  // genera ID autoincrement
+            registrarGuardado(codigoBarras);
+        });
+    }
+
+// INSERTAR POR LOTES (valida todo antes de escribir)
+
+    public void insertarLote(List<CodigoBarras> codigosBarras, int tamanioLote) throws Exception {
+        validateLote(codigosBarras);
+        codigoBarrasDAO.insertarLote(codigosBarras, tamanioLote);
+        for (CodigoBarras codigoBarras : codigosBarras) {
+            indicePorValor.put(codigoBarras);
+        }
+    }
+
+// INSERTAR POR LOTES dentro de una transacción existente
+
+    public void insertarLoteTx(List<CodigoBarras> codigosBarras, Connection conn, int tamanioLote) throws Exception {
+        validateLote(codigosBarras);
+        codigoBarrasDAO.insertarLoteTx(codigosBarras, conn, tamanioLote);
     }
 
 // ACTUALIZAR
     
     @Override
     public void actualizar(CodigoBarras codigoBarras) throws Exception {
-        validateCodigoBarras(codigoBarras);
-        if (codigoBarras.getId() <= 0) {
-            throw new IllegalArgumentException("El ID debe ser mayor a 0 para actualizar");
+        M_ACTUALIZAR.medir(1, () -> {
+            validateCodigoBarras(codigoBarras);
+            if (codigoBarras.getId() <= 0) {
+                throw new IllegalArgumentException("El ID debe ser mayor a 0 para actualizar");
+            }
+            try {
+                codigoBarrasDAO.actualizar(codigoBarras);
+            } catch (ConflictoVersionException e) {
+                // La cache tenía una versión vieja: la próxima lectura va a la base
+                cache.invalidar(codigoBarras.getId());
+                throw e;
+            }
+            registrarGuardado(codigoBarras);
+        });
+    }
+
+// Lee el código, le aplica "cambios" y lo guarda, releyendo y reaplicando si
+// otro lo modificó en el medio (ver ReintentoOptimista). Null si no existe.
+
+    public CodigoBarras modificar(int id, ReintentoOptimista.Cambios<CodigoBarras> cambios) throws Exception {
+        if (cambios == null) {
+            throw new IllegalArgumentException("Los cambios no pueden ser null");
         }
-        codigoBarrasDAO.actualizar(codigoBarras);
+        return ReintentoOptimista.ejecutar(() -> {
+            CodigoBarras codigoBarras = getById(id);
+            if (codigoBarras == null) {
+                return null;
+            }
+            cambios.aplicar(codigoBarras);
+            actualizar(codigoBarras);
+            return codigoBarras;
+        });
     }
 
 // ELIMINAR (soft delete)
@@ -43,10 +127,49 @@ public class CodigoBarrasServiceImpl implements GenericService<CodigoBarras> {
 
     @Override
     public void eliminar(int id) throws Exception {
+        M_ELIMINAR.medir(1, () -> {
+            if (id <= 0) {
+                throw new IllegalArgumentException("El ID debe ser mayor a 0");
+            }
+            codigoBarrasDAO.eliminar(id);
+            registrarEliminado(id);
+        });
+    }
+
+// VARIANTES TRANSACCIONALES
+// Escriben con la conexión de una transacción abierta por quien llama
+// (ProductoServiceImpl). Índice y cache se actualizan recién después del
+// commit, cuando el llamador invoca registrarGuardado/registrarEliminado.
+
+
+    public void insertarTx(CodigoBarras codigoBarras, Connection conn) throws Exception {
+        validateCodigoBarras(codigoBarras);
+        codigoBarrasDAO.insertTx(codigoBarras, conn);
+    }
+
+    public void actualizarTx(CodigoBarras codigoBarras, Connection conn) throws Exception {
+        validateCodigoBarras(codigoBarras);
+        if (codigoBarras.getId() <= 0) {
+            throw new IllegalArgumentException("El ID debe ser mayor a 0 para actualizar");
+        }
+        codigoBarrasDAO.actualizarTx(codigoBarras, conn);
+    }
+
+    public void eliminarTx(int id, Connection conn) throws Exception {
         if (id <= 0) {
             throw new IllegalArgumentException("El ID debe ser mayor a 0");
         }
-        codigoBarrasDAO.eliminar(id);
+        codigoBarrasDAO.eliminarTx(id, conn);
+    }
+
+    void registrarGuardado(CodigoBarras codigoBarras) {
+        indicePorValor.put(codigoBarras);
+        notificarCambio(codigoBarras.getId());
+    }
+
+    void registrarEliminado(int id) {
+        indicePorValor.remove(id);
+        notificarCambio(id);
     }
 
 // GET BY ID
@@ -54,10 +177,25 @@ public class CodigoBarrasServiceImpl implements GenericService<CodigoBarras> {
 
     @Override
     public CodigoBarras getById(int id) throws Exception {
-        if (id <= 0) {
-            throw new IllegalArgumentException("El ID debe ser mayor a 0");
-        }
-        return codigoBarrasDAO.getById(id);
+        return M_GET_BY_ID.medir(() -> {
+            if (id <= 0) {
+                throw new IllegalArgumentException("El ID debe ser mayor a 0");
+            }
+            return cache.obtener(id, codigoBarrasDAO::getById);
+        });
+    }
+
+// GET BY IDS: los que están en cache salen de ahí, el resto en un solo getByIds.
+
+
+    @Override
+    public Map<Integer, CodigoBarras> getByIds(Collection<Integer> ids) throws Exception {
+        return M_GET_BY_IDS.medir(() -> {
+            if (ids == null) {
+                throw new IllegalArgumentException("La lista de IDs no puede ser null");
+            }
+            return cache.obtenerVarios(ids, codigoBarrasDAO::getByIds);
+        });
     }
 
 // GET ALL
@@ -65,25 +203,76 @@ public class CodigoBarrasServiceImpl implements GenericService<CodigoBarras> {
 
     @Override
     public List<CodigoBarras> getAll() throws Exception {
-        return codigoBarrasDAO.getAll();
+        return M_GET_ALL.medir(() -> {
+            return codigoBarrasDAO.getAll();
+        });
+    }
+
+// RECORRIDO EN STREAMING (cerrar el Stream al terminar)
+
+
+    public Stream<CodigoBarras> streamAll() throws Exception {
+        return codigoBarrasDAO.streamAll();
     }
 
 // BÚSQUEDA ESPECIALIZADA
+// Resuelve un escaneo: primero el índice en memoria y la cache de getById; si
+// no está, o el código ya no existe o cambió de valor, va al DAO (consulta
+// por el índice de valor) y deja el resultado indexado.
 
     public CodigoBarras buscarPorValor(String valor) throws Exception {
-        if (valor == null || valor.trim().isEmpty()) {
-            throw new IllegalArgumentException("El valor no puede estar vacío");
+        return M_BUSCAR_POR_VALOR.medir(() -> {
+            if (valor == null || valor.trim().isEmpty()) {
+                throw new IllegalArgumentException("El valor no puede estar vacío");
+            }
+            String clave = valor.trim();
+            Integer id = indicePorValor.get(clave);
+            if (id != null) {
+                CodigoBarras codigoBarras = cache.obtener(id, codigoBarrasDAO::getById);
+                if (codigoBarras != null && codigoBarras.getValor() != null
+                        && clave.equals(codigoBarras.getValor().trim())) {
+                    return codigoBarras;
+                }
+                indicePorValor.remove(id);
+            }
+
+            CodigoBarras codigoBarras = codigoBarrasDAO.buscarPorValor(clave);
+            indicePorValor.put(codigoBarras);
+            return codigoBarras;
+        });
+    }
+
+// CACHE E INVALIDACIÓN
+
+
+    public CacheEntidades<CodigoBarras> getCache() {
+        return cache;
+    }
+
+    public void agregarOyenteCambio(IntConsumer oyente) {
+        oyentesCambio.add(oyente);
+    }
+
+    private void notificarCambio(int id) {
+        cache.invalidar(id);
+        for (IntConsumer oyente : oyentesCambio) {
+            oyente.accept(id);
         }
-        // Debe existir un método en tu DAO
-        // return ((CodigoBarrasDAO) codigoBarrasDAO).buscarPorValor(valor);
-        return null;
     }
 
 // VALIDACIONES
     
     
+    private void validateLote(List<CodigoBarras> codigosBarras) {
+        if (codigosBarras == null) {
+            throw new IllegalArgumentException("La lista de Códigos de Barras no puede ser null");
+        }
+        for (CodigoBarras codigoBarras : codigosBarras) {
+            validateCodigoBarras(codigoBarras);
+        }
+    }
     
-    private void validateCodigoBarras(CodigoBarras codigoBarras) {
+    void validateCodigoBarras(CodigoBarras codigoBarras) {
         if (codigoBarras == null) {
             throw new IllegalArgumentException("El Código de Barras no puede ser null");
         }
@@ -0,0 +1,67 @@
+package Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Escritor de texto UTF-8 sobre un FileChannel con un único buffer directo.
+// Codifica directo al buffer y lo vuelca al canal cuando se llena, sin copias
+// intermedias ni objetos por escritura. No es thread-safe.
+
+final class EscritorCanal implements Closeable {
+
+    private static final int TAMANIO_BUFFER = 1 << 16;
+
+    private final FileChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANIO_BUFFER);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private long bytesEscritos;
+
+    EscritorCanal(Path destino) throws IOException {
+        this.canal = FileChannel.open(destino, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    void escribir(CharSequence texto) throws IOException {
+        CharBuffer entrada = CharBuffer.wrap(texto);
+        while (true) {
+            CoderResult resultado = encoder.encode(entrada, buffer, true);
+            if (resultado.isOverflow()) {
+                vaciar();
+            } else if (resultado.isError()) {
+                resultado.throwException();
+            } else {
+                break;
+            }
+        }
+        encoder.reset();
+    }
+
+    long getBytesEscritos() {
+        return bytesEscritos + buffer.position();
+    }
+
+    private void vaciar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesEscritos += canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            vaciar();
+        } finally {
+            canal.close();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package Service;
+
+import Dao.ExportacionDAO;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+
+// Exporta el catálogo (productos activos con su código de barras) a CSV o JSON.
+// Cada fila va del ResultSet al buffer del EscritorCanal reutilizando un único
+// StringBuilder: no se arman entidades ni listas, así la memoria es la misma
+// para mil o para millones de productos.
+//
+// CSV: encabezado y una línea por producto; las columnas del código de barras
+// quedan vacías si no tiene. JSON: un arreglo de objetos con "codigoBarras"
+// anidado o null.
+
+public class ExportadorCatalogo {
+
+    public enum Formato {
+        CSV, JSON;
+
+// Deduce el formato por la extensión del archivo (CSV si no es .json).
+
+        public static Formato deArchivo(Path archivo) {
+            return archivo.getFileName().toString().toLowerCase().endsWith(".json") ? JSON : CSV;
+        }
+    }
+
+    private static final String ENCABEZADO_CSV =
+            "id,nombre,marca,categoria,precio,peso,codigoBarrasId,tipo,valor,fechaAsignacion,observaciones\n";
+
+    private final ExportacionDAO exportacionDAO;
+
+    public ExportadorCatalogo(ExportacionDAO exportacionDAO) {
+        if (exportacionDAO == null) {
+            throw new IllegalArgumentException("ExportacionDAO no puede ser null");
+        }
+        this.exportacionDAO = exportacionDAO;
+    }
+
+    public ReporteExportacion exportar(Path destino, Formato formato) throws Exception {
+        if (destino == null || formato == null) {
+            throw new IllegalArgumentException("El destino y el formato no pueden ser null");
+        }
+
+        long inicio = System.currentTimeMillis();
+        StringBuilder fila = new StringBuilder(256);
+        long filas;
+        long bytes;
+        try (EscritorCanal escritor = new EscritorCanal(destino)) {
+            if (formato == Formato.CSV) {
+                escritor.escribir(ENCABEZADO_CSV);
+                filas = exportacionDAO.recorrerCatalogo(rs -> {
+                    fila.setLength(0);
+                    filaCsv(rs, fila);
+                    escritor.escribir(fila);
+                });
+            } else {
+                escritor.escribir("[");
+                long[] escritas = new long[1];
+                filas = exportacionDAO.recorrerCatalogo(rs -> {
+                    fila.setLength(0);
+                    fila.append(escritas[0]++ == 0 ? "\n" : ",\n");
+                    filaJson(rs, fila);
+                    escritor.escribir(fila);
+                });
+                escritor.escribir("\n]\n");
+            }
+            bytes = escritor.getBytesEscritos();
+        }
+        return new ReporteExportacion(filas, bytes, System.currentTimeMillis() - inicio);
+    }
+
+    private static void filaCsv(ResultSet rs, StringBuilder sb) throws Exception {
+        sb.append(rs.getInt(ExportacionDAO.COL_ID)).append(',');
+        campoCsv(sb, rs.getString(ExportacionDAO.COL_NOMBRE)).append(',');
+        campoCsv(sb, rs.getString(ExportacionDAO.COL_MARCA)).append(',');
+        campoCsv(sb, rs.getString(ExportacionDAO.COL_CATEGORIA)).append(',');
+        sb.append(rs.getDouble(ExportacionDAO.COL_PRECIO)).append(',');
+        sb.append(rs.getDouble(ExportacionDAO.COL_PESO)).append(',');
+        int codigoBarrasId = rs.getInt(ExportacionDAO.COL_CB_ID);
+        if (!rs.wasNull()) {
+            sb.append(codigoBarrasId);
+        }
+        sb.append(',');
+        campoCsv(sb, rs.getString(ExportacionDAO.COL_CB_TIPO)).append(',');
+        campoCsv(sb, rs.getString(ExportacionDAO.COL_CB_VALOR)).append(',');
+        campoCsv(sb, rs.getString(ExportacionDAO.COL_CB_FECHA)).append(',');
+        campoCsv(sb, rs.getString(ExportacionDAO.COL_CB_OBSERVACIONES)).append('\n');
+    }
+
+    private static void filaJson(ResultSet rs, StringBuilder sb) throws Exception {
+        sb.append("{\"id\":").append(rs.getInt(ExportacionDAO.COL_ID));
+        sb.append(",\"nombre\":");
+        textoJson(sb, rs.getString(ExportacionDAO.COL_NOMBRE));
+        sb.append(",\"marca\":");
+        textoJson(sb, rs.getString(ExportacionDAO.COL_MARCA));
+        sb.append(",\"categoria\":");
+        textoJson(sb, rs.getString(ExportacionDAO.COL_CATEGORIA));
+        sb.append(",\"precio\":").append(rs.getDouble(ExportacionDAO.COL_PRECIO));
+        sb.append(",\"peso\":").append(rs.getDouble(ExportacionDAO.COL_PESO));
+        sb.append(",\"codigoBarras\":");
+        int codigoBarrasId = rs.getInt(ExportacionDAO.COL_CB_ID);
+        if (rs.wasNull()) {
+            sb.append("null}");
+            return;
+        }
+        sb.append("{\"id\":").append(codigoBarrasId);
+        sb.append(",\"tipo\":");
+        textoJson(sb, rs.getString(ExportacionDAO.COL_CB_TIPO));
+        sb.append(",\"valor\":");
+        textoJson(sb, rs.getString(ExportacionDAO.COL_CB_VALOR));
+        sb.append(",\"fechaAsignacion\":");
+        textoJson(sb, rs.getString(ExportacionDAO.COL_CB_FECHA));
+        sb.append(",\"observaciones\":");
+        textoJson(sb, rs.getString(ExportacionDAO.COL_CB_OBSERVACIONES));
+        sb.append("}}");
+    }
+
+// Entre comillas solo si hace falta (separador, comillas o salto de línea).
+
+    private static StringBuilder campoCsv(StringBuilder sb, String valor) {
+        if (valor == null) {
+            return sb;
+        }
+        boolean comillas = false;
+        for (int i = 0; i < valor.length() && !comillas; i++) {
+            char c = valor.charAt(i);
+            comillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!comillas) {
+            return sb.append(valor);
+        }
+        sb.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                sb.append('"');
+            }
+            sb.append(c);
+        }
+        return sb.append('"');
+    }
+
+    private static void textoJson(StringBuilder sb, String valor) {
+        if (valor == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -1,11 +1,14 @@
 package Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface GenericService<T> {
     void insertar(T entidad) throws Exception;
     void actualizar(T entidad) throws Exception;
     void eliminar(int id) throws Exception;
     T getById(int id) throws Exception;
+    Map<Integer, T> getByIds(Collection<Integer> ids) throws Exception;
     List<T> getAll() throws Exception;
 }
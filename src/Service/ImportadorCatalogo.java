@@ -0,0 +1,317 @@
+package Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import Entities.CodigoBarras;
+import Entities.Producto;
+
+// Importación masiva de catálogos CSV/TSV en tres etapas conectadas por colas
+// acotadas (si una etapa se atrasa, las anteriores esperan):
+//   1. Un hilo lee el archivo línea por línea.
+//   2. N hilos parsean y validan cada fila con las mismas reglas que los servicios.
+//   3. El hilo que llama agrupa las filas válidas y las guarda con
+//      ProductoServiceImpl.insertarLote (una transacción por lote).
+// Las filas inválidas, y las de un lote que falla al guardarse, se escriben en
+// el archivo de rechazos con su número de línea y el motivo.
+//
+// Columnas: nombre, marca, categoria, precio, peso y, opcionalmente, valor,
+// tipo, fechaAsignacion (aaaa-mm-dd, hoy si falta) y observaciones del código
+// de barras. Se usa tabulador si el archivo es .tsv o la primera línea lo
+// tiene; si no, coma (con comillas dobles estilo CSV). Una primera línea que
+// empieza con "nombre" se toma como encabezado.
+
+public class ImportadorCatalogo {
+
+    private static final Linea FIN_LINEAS = new Linea(-1, null);
+    private static final Fila FIN_FILAS = new Fila(-1, null, null);
+
+    private final ProductoServiceImpl productoService;
+    private final int hilosParseo;
+    private final int tamanioLote;
+    private final int capacidadCola;
+
+    public ImportadorCatalogo(ProductoServiceImpl productoService, int hilosParseo, int tamanioLote, int capacidadCola) {
+        if (productoService == null) {
+            throw new IllegalArgumentException("ProductoService no puede ser null");
+        }
+        if (hilosParseo <= 0 || tamanioLote <= 0 || capacidadCola <= 0) {
+            throw new IllegalArgumentException("Hilos, tamaño de lote y capacidad de cola deben ser mayores a 0");
+        }
+        this.productoService = productoService;
+        this.hilosParseo = hilosParseo;
+        this.tamanioLote = tamanioLote;
+        this.capacidadCola = capacidadCola;
+    }
+
+// Configuración por defecto: un hilo de parseo por procesador.
+
+    public ImportadorCatalogo(ProductoServiceImpl productoService) {
+        this(productoService, Runtime.getRuntime().availableProcessors(), 1000, 10_000);
+    }
+
+    public ReporteImportacion importar(Path archivo, Path archivoRechazos) throws Exception {
+        if (archivo == null || !Files.isReadable(archivo)) {
+            throw new IllegalArgumentException("No se puede leer el archivo: " + archivo);
+        }
+
+        long inicio = System.currentTimeMillis();
+        BlockingQueue<Linea> lineas = new ArrayBlockingQueue<>(capacidadCola);
+        BlockingQueue<Fila> filas = new ArrayBlockingQueue<>(capacidadCola);
+        AtomicLong leidas = new AtomicLong();
+        AtomicLong rechazadas = new AtomicLong();
+        long importadas = 0;
+        long lotes = 0;
+
+        char separador = detectarSeparador(archivo);
+        ExecutorService hilos = Executors.newFixedThreadPool(hilosParseo + 1, r -> {
+            Thread t = new Thread(r, "importador-catalogo");
+            t.setDaemon(true);
+            return t;
+        });
+
+        try (BufferedWriter rechazos = Files.newBufferedWriter(archivoRechazos, StandardCharsets.UTF_8)) {
+            rechazos.write("# linea\tmotivo\tcontenido");
+            rechazos.newLine();
+
+            Future<?> lector = hilos.submit(() -> {
+                leer(archivo, lineas, leidas);
+                return null;
+            });
+            List<Future<?>> parseadores = new ArrayList<>(hilosParseo);
+            for (int i = 0; i < hilosParseo; i++) {
+                parseadores.add(hilos.submit(() -> {
+                    parsear(separador, lineas, filas, rechazos, rechazadas);
+                    return null;
+                }));
+            }
+
+            // Etapa 3: escritura por lotes en este hilo
+            List<Fila> lote = new ArrayList<>(tamanioLote);
+            int terminados = 0;
+            while (terminados < hilosParseo) {
+                Fila fila = filas.take();
+                if (fila == FIN_FILAS) {
+                    terminados++;
+                    continue;
+                }
+                lote.add(fila);
+                if (lote.size() == tamanioLote) {
+                    importadas += guardarLote(lote, rechazos, rechazadas);
+                    lotes++;
+                    lote.clear();
+                }
+            }
+            if (!lote.isEmpty()) {
+                importadas += guardarLote(lote, rechazos, rechazadas);
+                lotes++;
+            }
+
+            // Si un parseador murió, sus líneas no se importaron ni se rechazaron:
+            // la importación falla. El lector puede estar bloqueado en la cola
+            // que nadie vacía; shutdownNow (en el finally) lo interrumpe.
+            for (Future<?> parseador : parseadores) {
+                esperar(parseador);
+            }
+            esperar(lector);
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        return new ReporteImportacion(leidas.get(), importadas, rechazadas.get(), lotes,
+                System.currentTimeMillis() - inicio);
+    }
+
+// Etapa 1: lee el archivo y encola las líneas con su número.
+// Encola un FIN por hilo de parseo aunque falle la lectura, salvo que lo
+// interrumpan (importación cancelada): ahí nadie va a vaciar la cola.
+
+    private void leer(Path archivo, BlockingQueue<Linea> lineas, AtomicLong leidas) throws Exception {
+        boolean cancelado = false;
+        try (BufferedReader reader = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            String texto;
+            long numero = 0;
+            while ((texto = reader.readLine()) != null) {
+                numero++;
+                if (texto.trim().isEmpty() || (numero == 1 && esEncabezado(texto))) {
+                    continue;
+                }
+                leidas.incrementAndGet();
+                lineas.put(new Linea(numero, texto));
+            }
+        } catch (InterruptedException e) {
+            cancelado = true;
+            throw e;
+        } finally {
+            for (int i = 0; i < hilosParseo && !cancelado; i++) {
+                lineas.put(FIN_LINEAS);
+            }
+        }
+    }
+
+// Etapa 2: convierte cada línea en Producto (+ CodigoBarras) y lo valida.
+
+    private void parsear(char separador, BlockingQueue<Linea> lineas, BlockingQueue<Fila> filas,
+                         BufferedWriter rechazos, AtomicLong rechazadas) throws Exception {
+        try {
+            while (true) {
+                Linea linea = lineas.take();
+                if (linea == FIN_LINEAS) {
+                    return;
+                }
+                try {
+                    Producto producto = convertir(separarCampos(linea.texto, separador));
+                    filas.put(new Fila(linea.numero, linea.texto, producto));
+                } catch (IllegalArgumentException | java.time.DateTimeException e) {
+                    rechazar(rechazos, rechazadas, linea.numero, e.getMessage(), linea.texto);
+                }
+            }
+        } finally {
+            filas.put(FIN_FILAS);
+        }
+    }
+
+    private Producto convertir(List<String> campos) {
+        if (campos.size() < 5) {
+            throw new IllegalArgumentException("Se esperaban al menos 5 columnas y hay " + campos.size());
+        }
+        Producto producto = new Producto(0, campos.get(0).trim(), campos.get(1).trim(), campos.get(2).trim(),
+                parsearNumero(campos.get(3), "precio"), parsearNumero(campos.get(4), "peso"));
+        productoService.validateProducto(producto);
+
+        String valor = campo(campos, 5);
+        if (!valor.isEmpty()) {
+            String fecha = campo(campos, 7);
+            CodigoBarras codigoBarras = new CodigoBarras(0, valor, campo(campos, 6),
+                    fecha.isEmpty() ? LocalDate.now() : LocalDate.parse(fecha), campo(campos, 8));
+            productoService.getCodigoBarrasService().validateCodigoBarras(codigoBarras);
+            producto.setCodBarras(codigoBarras);
+        }
+        return producto;
+    }
+
+// Guarda un lote en una transacción. Si falla, rechaza todas sus filas.
+
+    private long guardarLote(List<Fila> lote, BufferedWriter rechazos, AtomicLong rechazadas) throws IOException {
+        List<Producto> productos = new ArrayList<>(lote.size());
+        for (Fila fila : lote) {
+            productos.add(fila.producto);
+        }
+        try {
+            productoService.insertarLote(productos, tamanioLote);
+            return lote.size();
+        } catch (Exception e) {
+            for (Fila fila : lote) {
+                rechazar(rechazos, rechazadas, fila.numero, "Error al guardar el lote: " + e.getMessage(), fila.texto);
+            }
+            return 0;
+        }
+    }
+
+// Espera una etapa y relanza su error, si tuvo.
+
+    private static void esperar(Future<?> etapa) throws Exception {
+        try {
+            etapa.get();
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            throw new Exception("Error al procesar el catálogo: " + causa.getMessage(), causa);
+        }
+    }
+
+    private static void rechazar(BufferedWriter rechazos, AtomicLong rechazadas, long numero, String motivo,
+                                 String texto) throws IOException {
+        rechazadas.incrementAndGet();
+        synchronized (rechazos) {
+            rechazos.write(numero + "\t" + motivo + "\t" + texto);
+            rechazos.newLine();
+        }
+    }
+
+    private static char detectarSeparador(Path archivo) throws IOException {
+        if (archivo.getFileName().toString().toLowerCase().endsWith(".tsv")) {
+            return '\t';
+        }
+        try (BufferedReader reader = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            String primera = reader.readLine();
+            return primera != null && primera.indexOf('\t') >= 0 ? '\t' : ',';
+        }
+    }
+
+    private static boolean esEncabezado(String texto) {
+        return texto.trim().replace("\"", "").toLowerCase().startsWith("nombre");
+    }
+
+// Separa una línea en campos. Con coma respeta comillas dobles ("" es una comilla literal).
+
+    static List<String> separarCampos(String linea, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (separador != '\t' && c == '"') {
+                if (entreComillas && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else {
+                    entreComillas = !entreComillas;
+                }
+            } else if (c == separador && !entreComillas) {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString());
+        return campos;
+    }
+
+    private static double parsearNumero(String texto, String nombreCampo) {
+        try {
+            return Double.parseDouble(texto.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El " + nombreCampo + " no es un número válido: " + texto);
+        }
+    }
+
+    private static String campo(List<String> campos, int indice) {
+        return indice < campos.size() ? campos.get(indice).trim() : "";
+    }
+
+    private static final class Linea {
+        private final long numero;
+        private final String texto;
+
+        private Linea(long numero, String texto) {
+            this.numero = numero;
+            this.texto = texto;
+        }
+    }
+
+    private static final class Fila {
+        private final long numero;
+        private final String texto;
+        private final Producto producto;
+
+        private Fila(long numero, String texto, Producto producto) {
+            this.numero = numero;
+            this.texto = texto;
+            this.producto = producto;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import Entities.CodigoBarras;
+
+// Índice en memoria valor -> ID de CodigoBarras para resolver escaneos sin
+// consultar por valor. Se llena a demanda (read-through) y
+// CodigoBarrasServiceImpl lo mantiene al día en sus propias escrituras.
+// - Acotado: desaloja el valor menos usado al superar "capacidad" (LRU).
+// - Descarta entradas más viejas que ttlMillis, así lo que cambió otro
+//   proceso (baja, cambio de valor, archivo) deja de resolverse solo.
+// - Solo guarda el ID: la entidad sale de la cache de getById, que también
+//   tiene tamaño y TTL, y el servicio comprueba que siga con ese valor.
+// Un valor que no existe no se indexa.
+
+class IndiceCodigoBarras {
+
+    private final int capacidad;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entrada> porValor;
+
+// Valor indexado de cada ID, para poder quitar la entrada vieja cuando cambia el valor.
+
+    private final Map<Integer, String> valorPorId = new HashMap<>();
+
+    IndiceCodigoBarras(int capacidad, long ttlMillis) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad del índice debe ser mayor a 0");
+        }
+        this.capacidad = capacidad;
+        this.ttlMillis = ttlMillis;
+        this.porValor = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                if (size() > IndiceCodigoBarras.this.capacidad) {
+                    valorPorId.remove(eldest.getValue().id, eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+// ID indexado para el valor, o null si no está o ya venció.
+
+    synchronized Integer get(String valor) {
+        Entrada entrada = porValor.get(valor);
+        if (entrada == null) {
+            return null;
+        }
+        if (entrada.vencida(ttlMillis)) {
+            porValor.remove(valor);
+            valorPorId.remove(entrada.id, valor);
+            return null;
+        }
+        return entrada.id;
+    }
+
+    synchronized void put(CodigoBarras codigoBarras) {
+        if (codigoBarras == null || codigoBarras.getId() <= 0 || codigoBarras.getValor() == null) {
+            return;
+        }
+        int id = codigoBarras.getId();
+        String valor = codigoBarras.getValor().trim();
+        String anterior = valorPorId.put(id, valor);
+        if (anterior != null && !anterior.equals(valor)) {
+            removeValor(anterior, id);
+        }
+        Entrada reemplazada = porValor.put(valor, new Entrada(id));
+        if (reemplazada != null && reemplazada.id != id) {
+            valorPorId.remove(reemplazada.id, valor);
+        }
+    }
+
+    synchronized void remove(int id) {
+        String valor = valorPorId.remove(id);
+        if (valor != null) {
+            removeValor(valor, id);
+        }
+    }
+
+// Quita la entrada solo si sigue apuntando a ese ID (el valor no es único en la tabla).
+
+    private void removeValor(String valor, int id) {
+        porValor.computeIfPresent(valor, (clave, actual) -> actual.id == id ? null : actual);
+    }
+
+    synchronized int size() {
+        return porValor.size();
+    }
+
+    private static final class Entrada {
+        private final int id;
+        private final long cargadaEn;
+
+        private Entrada(int id) {
+            this.id = id;
+            this.cargadaEn = System.currentTimeMillis();
+        }
+
+        private boolean vencida(long ttlMillis) {
+            return ttlMillis > 0 && System.currentTimeMillis() - cargadaEn > ttlMillis;
+        }
+    }
+}
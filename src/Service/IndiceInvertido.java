@@ -0,0 +1,162 @@
+package Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import Entities.Producto;
+
+// Índice invertido palabra -> productos sobre nombre, marca y categoría.
+// Reemplaza el LIKE '%filtro%' (que recorre toda la tabla) para búsquedas por
+// palabras. Cada aparición pesa según el campo (nombre > marca > categoría) y
+// el puntaje se pondera por IDF, así los términos raros ordenan mejor.
+// Los resultados se ordenan por cantidad de términos encontrados y puntaje.
+
+class IndiceInvertido implements IndiceProductos {
+
+    private static final float PESO_NOMBRE = 3f;
+    private static final float PESO_MARCA = 2f;
+    private static final float PESO_CATEGORIA = 1f;
+
+// palabra -> (ID de producto -> peso acumulado de la palabra en ese producto)
+
+    private final Map<String, Map<Integer, Float>> postings = new HashMap<>();
+
+// ID de producto -> palabras indexadas, para poder removerlo.
+
+    private final Map<Integer, Set<String>> palabrasPorProducto = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void indexar(Producto producto) {
+        Map<String, Float> pesos = new HashMap<>();
+        acumular(pesos, producto.getNombre(), PESO_NOMBRE);
+        acumular(pesos, producto.getMarca(), PESO_MARCA);
+        acumular(pesos, producto.getCategoria(), PESO_CATEGORIA);
+
+        lock.writeLock().lock();
+        try {
+            removerSinLock(producto.getId());
+            for (Map.Entry<String, Float> entrada : pesos.entrySet()) {
+                postings.computeIfAbsent(entrada.getKey(), k -> new HashMap<>())
+                        .put(producto.getId(), entrada.getValue());
+            }
+            palabrasPorProducto.put(producto.getId(), new HashSet<>(pesos.keySet()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remover(int id) {
+        lock.writeLock().lock();
+        try {
+            removerSinLock(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void limpiar() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            palabrasPorProducto.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+// Devuelve hasta "limite" IDs de productos ordenados por relevancia.
+
+    List<Integer> buscar(String consulta, int limite) {
+        Set<String> terminos = new LinkedHashSet<>(Normalizador.tokenizar(consulta));
+        if (terminos.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Integer, Resultado> candidatos = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int totalProductos = Math.max(1, palabrasPorProducto.size());
+            for (String termino : terminos) {
+                Map<Integer, Float> lista = postings.get(termino);
+                if (lista == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + totalProductos / (double) lista.size());
+                for (Map.Entry<Integer, Float> posting : lista.entrySet()) {
+                    Resultado r = candidatos.computeIfAbsent(posting.getKey(), Resultado::new);
+                    r.terminos++;
+                    r.puntaje += posting.getValue() * idf;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Resultado> ordenados = new ArrayList<>(candidatos.values());
+        ordenados.sort((a, b) -> {
+            if (a.terminos != b.terminos) {
+                return Integer.compare(b.terminos, a.terminos);
+            }
+            if (a.puntaje != b.puntaje) {
+                return Double.compare(b.puntaje, a.puntaje);
+            }
+            return Integer.compare(a.id, b.id);
+        });
+
+        List<Integer> ids = new ArrayList<>(Math.min(limite, ordenados.size()));
+        for (int i = 0; i < ordenados.size() && i < limite; i++) {
+            ids.add(ordenados.get(i).id);
+        }
+        return ids;
+    }
+
+    int getCantidadPalabras() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void acumular(Map<String, Float> pesos, String texto, float peso) {
+        for (String palabra : Normalizador.tokenizar(texto)) {
+            pesos.merge(palabra, peso, Float::sum);
+        }
+    }
+
+    private void removerSinLock(int id) {
+        Set<String> palabras = palabrasPorProducto.remove(id);
+        if (palabras == null) {
+            return;
+        }
+        for (String palabra : palabras) {
+            Map<Integer, Float> lista = postings.get(palabra);
+            if (lista != null) {
+                lista.remove(id);
+                if (lista.isEmpty()) {
+                    postings.remove(palabra);
+                }
+            }
+        }
+    }
+
+    private static final class Resultado {
+        private final int id;
+        private int terminos;
+        private double puntaje;
+
+        private Resultado(int id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package Service;
+
+import Entities.Producto;
+
+// Índice en memoria sobre los productos activos. ProductoServiceImpl lo
+// construye recorriendo el DAO una vez y lo mantiene al día en cada escritura.
+
+interface IndiceProductos {
+
+// Agrega el producto o reemplaza la versión indexada con el mismo ID.
+
+    void indexar(Producto producto);
+
+    void remover(int id);
+
+    void limpiar();
+}
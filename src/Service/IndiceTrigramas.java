@@ -0,0 +1,153 @@
+package Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import Entities.Producto;
+
+// Índice de trigramas sobre nombre y marca para búsquedas por subcadena
+// ("cola" encuentra "Coca-Cola"), equivalente al LIKE '%filtro%' del DAO.
+// Cada trigrama del filtro reduce los candidatos intersectando sus listas;
+// después se verifica la subcadena completa en los candidatos que quedan.
+// Filtros de menos de 3 caracteres se verifican contra todos los productos.
+
+class IndiceTrigramas implements IndiceProductos {
+
+// trigrama codificado -> IDs de productos cuyo nombre o marca lo contienen
+
+    private final Map<Long, Set<Integer>> postings = new HashMap<>();
+
+// ID -> nombre y marca normalizados, para la verificación final.
+
+    private final Map<Integer, String[]> textos = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void indexar(Producto producto) {
+        String[] campos = {
+            Normalizador.normalizar(producto.getNombre()),
+            Normalizador.normalizar(producto.getMarca())
+        };
+
+        lock.writeLock().lock();
+        try {
+            removerSinLock(producto.getId());
+            textos.put(producto.getId(), campos);
+            for (String campo : campos) {
+                for (int i = 0; i + 3 <= campo.length(); i++) {
+                    postings.computeIfAbsent(trigrama(campo, i), k -> new HashSet<>()).add(producto.getId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remover(int id) {
+        lock.writeLock().lock();
+        try {
+            removerSinLock(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void limpiar() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            textos.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+// IDs (ordenados) de los productos cuyo nombre o marca contiene el filtro.
+
+    List<Integer> buscar(String filtro) {
+        String patron = Normalizador.normalizar(filtro);
+        List<Integer> ids = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            if (patron.length() < 3) {
+                for (Map.Entry<Integer, String[]> texto : textos.entrySet()) {
+                    if (contiene(texto.getValue(), patron)) {
+                        ids.add(texto.getKey());
+                    }
+                }
+            } else {
+                for (int id : candidatos(patron)) {
+                    if (contiene(textos.get(id), patron)) {
+                        ids.add(id);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Collections.sort(ids);
+        return ids;
+    }
+
+// Intersección de las listas de todos los trigramas del patrón, empezando por la más corta.
+
+    private Set<Integer> candidatos(String patron) {
+        List<Set<Integer>> listas = new ArrayList<>();
+        for (int i = 0; i + 3 <= patron.length(); i++) {
+            Set<Integer> lista = postings.get(trigrama(patron, i));
+            if (lista == null) {
+                return Collections.emptySet();
+            }
+            listas.add(lista);
+        }
+        listas.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        Set<Integer> resultado = new HashSet<>(listas.get(0));
+        for (int i = 1; i < listas.size() && !resultado.isEmpty(); i++) {
+            resultado.retainAll(listas.get(i));
+        }
+        return resultado;
+    }
+
+    private static boolean contiene(String[] campos, String patron) {
+        for (String campo : campos) {
+            if (campo.contains(patron)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long trigrama(String texto, int desde) {
+        return ((long) texto.charAt(desde) << 32) | ((long) texto.charAt(desde + 1) << 16) | texto.charAt(desde + 2);
+    }
+
+    private void removerSinLock(int id) {
+        String[] campos = textos.remove(id);
+        if (campos == null) {
+            return;
+        }
+        for (String campo : campos) {
+            for (int i = 0; i + 3 <= campo.length(); i++) {
+                long clave = trigrama(campo, i);
+                Set<Integer> lista = postings.get(clave);
+                if (lista != null) {
+                    lista.remove(id);
+                    if (lista.isEmpty()) {
+                        postings.remove(clave);
+                    }
+                }
+            }
+        }
+    }
+}
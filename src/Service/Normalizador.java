@@ -0,0 +1,64 @@
+package Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Normalización de texto compartida por los índices de búsqueda en memoria:
+// minúsculas y sin tildes. Se aproxima a cómo compara la collation _ci de
+// MariaDB, pero no es idéntica (ver el target "paridad-busqueda" de build.xml).
+
+final class Normalizador {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+
+// Plegado carácter por carácter (minúscula sin tilde) precalculado para
+// Latin-1 y Latin Extended-A, para normalizar sin crear Strings.
+
+    private static final char[] PLEGADO = new char[0x180];
+
+    static {
+        for (char c = 0; c < PLEGADO.length; c++) {
+            String plegado = normalizar(String.valueOf(c));
+            PLEGADO[c] = plegado.length() == 1 ? plegado.charAt(0) : Character.toLowerCase(c);
+        }
+    }
+
+    private Normalizador() {
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinTildes = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        return MARCAS_DIACRITICAS.matcher(sinTildes).replaceAll("").toLowerCase();
+    }
+
+    static char plegar(char c) {
+        return c < PLEGADO.length ? PLEGADO[c] : Character.toLowerCase(c);
+    }
+
+// Divide el texto normalizado en palabras (letras y dígitos).
+
+    static List<String> tokenizar(String texto) {
+        String normalizado = normalizar(texto);
+        List<String> tokens = new ArrayList<>();
+        int inicio = -1;
+        for (int i = 0; i < normalizado.length(); i++) {
+            if (Character.isLetterOrDigit(normalizado.charAt(i))) {
+                if (inicio < 0) {
+                    inicio = i;
+                }
+            } else if (inicio >= 0) {
+                tokens.add(normalizado.substring(inicio, i));
+                inicio = -1;
+            }
+        }
+        if (inicio >= 0) {
+            tokens.add(normalizado.substring(inicio));
+        }
+        return tokens;
+    }
+}
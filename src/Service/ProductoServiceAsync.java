@@ -0,0 +1,159 @@
+package Service;
+
+import Config.DatabaseConnection;
+import Entities.CodigoBarras;
+import Entities.Producto;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+// Fachada asíncrona sobre ProductoServiceImpl y CodigoBarrasServiceImpl.
+// Cada llamada corre en su propio hilo virtual y devuelve un CompletableFuture,
+// así se pueden lanzar muchas consultas independientes a la vez (por ejemplo,
+// resolver una cesta de códigos escaneados).
+// Un semáforo limita las llamadas simultáneas al tamaño del pool de conexiones:
+// las que sobran esperan en su hilo virtual (sin costo) en vez de vencer el
+// timeout de adquisición del pool.
+
+public class ProductoServiceAsync implements AutoCloseable {
+
+    @FunctionalInterface
+    private interface Llamada<T> {
+
+        T ejecutar() throws Exception;
+    }
+
+    private final ProductoServiceImpl productoService;
+    private final CodigoBarrasServiceImpl codigoBarrasService;
+    private final Semaphore permisos;
+    private final ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ProductoServiceAsync(ProductoServiceImpl productoService, int maxConcurrencia) {
+        if (productoService == null) {
+            throw new IllegalArgumentException("ProductoService no puede ser null");
+        }
+        if (maxConcurrencia <= 0) {
+            throw new IllegalArgumentException("La concurrencia máxima debe ser mayor a 0");
+        }
+        this.productoService = productoService;
+        this.codigoBarrasService = productoService.getCodigoBarrasService();
+        this.permisos = new Semaphore(maxConcurrencia, true);
+    }
+
+// Limita la concurrencia al tamaño máximo del pool compartido.
+
+    public ProductoServiceAsync(ProductoServiceImpl productoService) {
+        this(productoService, DatabaseConnection.getPool().getMaxSize());
+    }
+
+    public CompletableFuture<Producto> getById(int id) {
+        return ejecutar(() -> productoService.getById(id));
+    }
+
+    public CompletableFuture<List<Producto>> getAll() {
+        return ejecutar(productoService::getAll);
+    }
+
+    public CompletableFuture<List<Producto>> buscarPorNombreMarca(String filtro) {
+        return ejecutar(() -> productoService.buscarPorNombreMarca(filtro));
+    }
+
+    public CompletableFuture<List<Producto>> buscarTexto(String consulta, int limite) {
+        return ejecutar(() -> productoService.buscarTexto(consulta, limite));
+    }
+
+    public CompletableFuture<Producto> buscarPorCodigoBarras(String valor) {
+        return ejecutar(() -> productoService.buscarPorCodigoBarras(valor));
+    }
+
+    public CompletableFuture<Void> insertar(Producto producto) {
+        return ejecutar(() -> {
+            productoService.insertar(producto);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> actualizar(Producto producto) {
+        return ejecutar(() -> {
+            productoService.actualizar(producto);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> eliminar(int id) {
+        return ejecutar(() -> {
+            productoService.eliminar(id);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Map<Integer, Producto>> getByIds(Collection<Integer> ids) {
+        return ejecutar(() -> productoService.getByIds(ids));
+    }
+
+    public CompletableFuture<CodigoBarras> getCodigoBarrasById(int id) {
+        return ejecutar(() -> codigoBarrasService.getById(id));
+    }
+
+    public CompletableFuture<CodigoBarras> buscarCodigoBarrasPorValor(String valor) {
+        return ejecutar(() -> codigoBarrasService.buscarPorValor(valor));
+    }
+
+// Resuelve en paralelo una cesta de códigos escaneados. La lista resultante
+// respeta el orden de "valores" y tiene null donde el código no corresponde a
+// ningún producto. Un código repetido en la cesta se busca una sola vez, y los
+// productos que no están en cache se leen juntos (CargadorPorLotes) en lugar
+// de una consulta por código.
+
+    public CompletableFuture<List<Producto>> resolverCesta(List<String> valores) {
+        if (valores == null) {
+            throw new IllegalArgumentException("La lista de códigos no puede ser null");
+        }
+        CargadorPorLotes<Producto> cargador = productoService.nuevoCargadorPorLotes();
+        Map<String, CompletableFuture<Producto>> busquedas = new HashMap<>();
+        for (String valor : valores) {
+            busquedas.computeIfAbsent(valor,
+                    v -> ejecutar(() -> productoService.buscarPorCodigoBarras(v, cargador::getById)));
+        }
+        return CompletableFuture.allOf(busquedas.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> {
+                    List<Producto> productos = new ArrayList<>(valores.size());
+                    for (String valor : valores) {
+                        productos.add(busquedas.get(valor).join());
+                    }
+                    return productos;
+                });
+    }
+
+// No acepta llamadas nuevas; las ya lanzadas terminan normalmente.
+
+    @Override
+    public void close() {
+        hilos.shutdown();
+    }
+
+    private <T> CompletableFuture<T> ejecutar(Llamada<T> llamada) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permisos.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return llamada.ejecutar();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                permisos.release();
+            }
+        }, hilos);
+    }
+}
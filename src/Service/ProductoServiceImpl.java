@@ -1,15 +1,51 @@
 package Service;
 
 import Entities.Producto;
+import Entities.ProductoResumen;
 
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import Config.DatabaseConnection;
+import Config.Metricas;
+import Config.MetricasOperacion;
+import Config.TransactionManager;
+import Dao.ConflictoVersionException;
+import Dao.GenericDAO;
+import Dao.Pagina;
+import Dao.ModoCarga;
 import Dao.ProductoDAO;
+import Entities.CodigoBarras;
 
 // Capa de servicio: valida reglas de negocio y coordina operaciones entre UI y DAO.
 
 
 public class ProductoServiceImpl implements GenericService<Producto> {
 
+// Tamaño máximo de página aceptado en listados paginados.
+
+    public static final int TAMANIO_PAGINA_MAX = 500;
+
+// Coincidencias del índice de trigramas a partir de las cuales buscarPorNombreMarca
+// usa el LIKE del DAO en vez de traer los productos por ID (-Dbusqueda.maxIdsIndice).
+
+    static final int MAX_IDS_POR_INDICE = Integer.getInteger("busqueda.maxIdsIndice", 1_000);
+
+// buscarPorNombreMarca con el índice de trigramas en vez del LIKE del DAO
+// (-Dbusqueda.indiceSubcadenas=true). Apagado por defecto: el índice solo ve
+// las escrituras de este proceso y su normalización se aproxima a la collation
+// _ci sin ser idéntica. Activarlo solo con un único front end escribiendo, y
+// después de correr el target "paridad-busqueda" de build.xml contra la base.
+
+    static final boolean INDICE_SUBCADENAS = Boolean.getBoolean("busqueda.indiceSubcadenas");
+
 
 // DAO responsable del acceso a datos de Producto.
  
@@ -21,6 +57,44 @@ public class ProductoServiceImpl implements GenericService<Producto> {
     
     private final CodigoBarrasServiceImpl codigoBarrasServiceImpl;
 
+// ID de CodigoBarras -> ID del producto que lo usa, para resolver escaneos sin JOIN.
+
+    private final ConcurrentHashMap<Integer, Integer> productoPorCodigoBarras = new ConcurrentHashMap<>();
+
+// Inverso del anterior (ID del producto -> ID de su CodigoBarras), para
+// desindexar un producto por clave sin recorrer todo el mapa.
+
+    private final ConcurrentHashMap<Integer, Integer> codigoBarrasPorProducto = new ConcurrentHashMap<>();
+
+// Cache read-through de getById. Tamaño y TTL ajustables con -Dcache.productos.*
+
+    private final CacheEntidades<Producto> cache = new CacheEntidades<>(
+            Integer.getInteger("cache.productos.max", 10_000),
+            Long.getLong("cache.productos.ttlMs", 300_000L),
+            Producto::new);
+
+// Índices de búsqueda en memoria. Se construyen con un recorrido del DAO en
+// la primera búsqueda y después se actualizan en cada escritura.
+
+    private final IndiceInvertido indiceTexto = new IndiceInvertido();
+    private final IndiceTrigramas indiceSubcadenas = new IndiceTrigramas();
+    private final TrieAutocompletado autocompletado = new TrieAutocompletado(
+            Integer.getInteger("autocompletar.k", 10));
+    private final List<IndiceProductos> indices = List.of(indiceTexto, indiceSubcadenas, autocompletado);
+    private volatile boolean indicesConstruidos;
+
+// Métricas por operación (latencia, llamadas, errores, filas), publicadas por JMX.
+
+    private static final MetricasOperacion M_INSERTAR = Metricas.operacion("ProductoService", "insertar");
+    private static final MetricasOperacion M_ACTUALIZAR = Metricas.operacion("ProductoService", "actualizar");
+    private static final MetricasOperacion M_ELIMINAR = Metricas.operacion("ProductoService", "eliminar");
+    private static final MetricasOperacion M_GET_BY_ID = Metricas.operacion("ProductoService", "getById");
+    private static final MetricasOperacion M_GET_BY_IDS = Metricas.operacion("ProductoService", "getByIds");
+    private static final MetricasOperacion M_GET_ALL = Metricas.operacion("ProductoService", "getAll");
+    private static final MetricasOperacion M_BUSCAR_POR_NOMBRE_MARCA = Metricas.operacion("ProductoService", "buscarPorNombreMarca");
+    private static final MetricasOperacion M_BUSCAR_TEXTO = Metricas.operacion("ProductoService", "buscarTexto");
+    private static final MetricasOperacion M_BUSCAR_POR_CODIGO_BARRAS = Metricas.operacion("ProductoService", "buscarPorCodigoBarras");
+
 // Constructor que recibe las dependencias necesarias.
 // Valida que no sean null.
 
@@ -34,40 +108,185 @@ public class ProductoServiceImpl implements GenericService<Producto> {
         }
         this.productoDAO = productoDAO;
         this.codigoBarrasServiceImpl = codigoBarrasServiceImpl;
+
+        // Un producto cacheado incluye su CodigoBarras: si este cambia, se invalida
+        codigoBarrasServiceImpl.agregarOyenteCambio(codigoBarrasId -> cache.invalidarSi(
+                p -> p.getCodigoBarrasId() == codigoBarrasId));
     }
 
     // Inserta un producto luego de validar sus datos.
+    // CodigoBarras y Producto se escriben con una sola conexión y un solo commit.
     
     
     @Override
     public void insertar(Producto producto) throws Exception {
-        validateProducto(producto);
-        
+        M_INSERTAR.medir(1, () -> {
+            validateProducto(producto);
+            CodigoBarras codigoBarras = producto.getCodBarras();
+            boolean codigoNuevo = codigoBarras != null && codigoBarras.getId() == 0;
+            int versionCodigo = codigoBarras != null ? codigoBarras.getVersion() : 0;
 
-        if (producto.getCodBarras() != null) {
-            if (producto.getCodBarras().getId() == 0) {
-                // CodigoBarras nuevo: insertar primero para obtener ID autogenerado
-                codigoBarrasServiceImpl.insertar(producto.getCodBarras());
-            } else {
-                // CodigoBarras existente: actualizar datos
-                codigoBarrasServiceImpl.actualizar(producto.getCodBarras());
+            try (TransactionManager tx = new TransactionManager(DatabaseConnection.getConnection())) {
+                tx.startTransaction();
+                guardarCodigoBarrasTx(codigoBarras, tx.getConnection());
+                productoDAO.insertTx(producto, tx.getConnection());
+                tx.commit();
+            } catch (Exception e) {
+                // Rollback: los IDs y versiones asignados durante la transacción ya no valen
+                if (codigoNuevo) {
+                    codigoBarras.setId(0);
+                }
+                producto.setId(0);
+                if (codigoBarras != null) {
+                    codigoBarras.setVersion(versionCodigo);
+                    if (!codigoNuevo && e instanceof ConflictoVersionException) {
+                        // La cache tenía una versión vieja del código: la próxima lectura va a la base
+                        codigoBarrasServiceImpl.getCache().invalidar(codigoBarras.getId());
+                    }
+                }
+                throw e;
             }
+
+// Ya confirmado: desde acá solo cuentan los cambios nuevos.
+
+            producto.limpiarModificados();
+            if (codigoBarras != null) {
+                codigoBarras.limpiarModificados();
+                codigoBarrasServiceImpl.registrarGuardado(codigoBarras);
+            }
+            indexarCodigoBarras(producto);
+            actualizarIndices(producto);
+        });
+    }
+
+// Inserta muchos productos en una sola transacción usando lotes JDBC.
+// Primero inserta por lotes los CodigoBarras nuevos (ID 0) y luego los
+// productos, que ya pueden referenciar el ID generado. Los CodigoBarras
+// existentes solo se vinculan, no se actualizan.
+
+    public void insertarLote(List<Producto> productos) throws Exception {
+        insertarLote(productos, GenericDAO.TAMANIO_LOTE_DEFAULT);
+    }
+
+    public void insertarLote(List<Producto> productos, int tamanioLote) throws Exception {
+        if (productos == null) {
+            throw new IllegalArgumentException("La lista de productos no puede ser null");
+        }
+        for (Producto producto : productos) {
+            validateProducto(producto);
+        }
+
+        // Un mismo CodigoBarras compartido por dos productos se inserta una sola vez
+        Set<CodigoBarras> vistos = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<CodigoBarras> codigosNuevos = new ArrayList<>();
+        for (Producto producto : productos) {
+            CodigoBarras codigoBarras = producto.getCodBarras();
+            if (codigoBarras != null && codigoBarras.getId() == 0 && vistos.add(codigoBarras)) {
+                codigosNuevos.add(codigoBarras);
+            }
+        }
+
+        try (TransactionManager tx = new TransactionManager(DatabaseConnection.getConnection())) {
+            tx.startTransaction();
+            codigoBarrasServiceImpl.insertarLoteTx(codigosNuevos, tx.getConnection(), tamanioLote);
+            productoDAO.insertarLoteTx(productos, tx.getConnection(), tamanioLote);
+            tx.commit();
+        } catch (Exception e) {
+            // Rollback: los IDs asignados durante la transacción ya no existen
+            for (CodigoBarras codigoBarras : codigosNuevos) {
+                codigoBarras.setId(0);
+            }
+            for (Producto producto : productos) {
+                producto.setId(0);
+            }
+            throw e;
         }
 
-        productoDAO.insertar(producto);
+// Ya confirmado: desde acá solo cuentan los cambios nuevos.
+
+        for (CodigoBarras codigoBarras : codigosNuevos) {
+            codigoBarras.limpiarModificados();
+            codigoBarrasServiceImpl.registrarGuardado(codigoBarras);
+        }
+        for (Producto producto : productos) {
+            producto.limpiarModificados();
+            indexarCodigoBarras(producto);
+            actualizarIndices(producto);
+        }
     }
 
 // Actualiza un producto existente después de validar sus datos.
+// Si trae CodigoBarras, se inserta (nuevo) o actualiza en la misma transacción.
     
     
     
     @Override
     public void actualizar(Producto persona) throws Exception {
-        validateProducto(persona);
-        if (persona.getId() <= 0) {
-            throw new IllegalArgumentException("El ID de la persona debe ser mayor a 0 para actualizar");
+        M_ACTUALIZAR.medir(1, () -> {
+            validateProducto(persona);
+            if (persona.getId() <= 0) {
+                throw new IllegalArgumentException("El ID de la persona debe ser mayor a 0 para actualizar");
+            }
+            CodigoBarras codigoBarras = persona.getCodBarras();
+            boolean codigoNuevo = codigoBarras != null && codigoBarras.getId() == 0;
+            int versionProducto = persona.getVersion();
+            int versionCodigo = codigoBarras != null ? codigoBarras.getVersion() : 0;
+
+            try (TransactionManager tx = new TransactionManager(DatabaseConnection.getConnection())) {
+                tx.startTransaction();
+                guardarCodigoBarrasTx(codigoBarras, tx.getConnection());
+                productoDAO.actualizarTx(persona, tx.getConnection());
+                tx.commit();
+            } catch (Exception e) {
+                // Rollback: los IDs y versiones asignados durante la transacción ya no valen
+                if (codigoNuevo) {
+                    codigoBarras.setId(0);
+                }
+                persona.setVersion(versionProducto);
+                if (codigoBarras != null) {
+                    codigoBarras.setVersion(versionCodigo);
+                }
+                if (e instanceof ConflictoVersionException) {
+                    // La cache tenía una versión vieja: la próxima lectura va a la base
+                    cache.invalidar(persona.getId());
+                    if (codigoBarras != null && !codigoNuevo) {
+                        codigoBarrasServiceImpl.getCache().invalidar(codigoBarras.getId());
+                    }
+                }
+                throw e;
+            }
+
+// Ya confirmado: desde acá solo cuentan los cambios nuevos.
+
+            persona.limpiarModificados();
+            if (codigoBarras != null) {
+                codigoBarras.limpiarModificados();
+                codigoBarrasServiceImpl.registrarGuardado(codigoBarras);
+            }
+            cache.invalidar(persona.getId());
+            desindexarCodigoBarras(persona.getId());
+            indexarCodigoBarras(persona);
+            actualizarIndices(persona);
+        });
+    }
+
+// Lee el producto, le aplica "cambios" y lo guarda. Si otro lo modificó en el
+// medio (ConflictoVersionException), lo vuelve a leer y reaplica los cambios
+// (ver ReintentoOptimista). Devuelve el producto guardado o null si no existe.
+
+    public Producto modificar(int id, ReintentoOptimista.Cambios<Producto> cambios) throws Exception {
+        if (cambios == null) {
+            throw new IllegalArgumentException("Los cambios no pueden ser null");
         }
-        productoDAO.actualizar(persona);
+        return ReintentoOptimista.ejecutar(() -> {
+            Producto producto = getById(id);
+            if (producto == null) {
+                return null;
+            }
+            cambios.aplicar(producto);
+            actualizar(producto);
+            return producto;
+        });
     }
 
 // Elimina un producto por ID luego de validar el parámetro.
@@ -75,10 +294,15 @@ public class ProductoServiceImpl implements GenericService<Producto> {
     
     @Override
     public void eliminar(int id) throws Exception {
-        if (id <= 0) {
-            throw new IllegalArgumentException("El ID debe ser mayor a 0");
-        }
-        productoDAO.eliminar(id);
+        M_ELIMINAR.medir(1, () -> {
+            if (id <= 0) {
+                throw new IllegalArgumentException("El ID debe ser mayor a 0");
+            }
+            productoDAO.eliminar(id);
+            cache.invalidar(id);
+            desindexarCodigoBarras(id);
+            removerDeIndices(id);
+        });
     }
 
 // Devuelve un Producto por su ID.
@@ -86,10 +310,34 @@ public class ProductoServiceImpl implements GenericService<Producto> {
     
     @Override
     public Producto getById(int id) throws Exception {
-        if (id <= 0) {
-            throw new IllegalArgumentException("El ID debe ser mayor a 0");
-        }
-        return productoDAO.getById(id);
+        return M_GET_BY_ID.medir(() -> {
+            if (id <= 0) {
+                throw new IllegalArgumentException("El ID debe ser mayor a 0");
+            }
+            return cache.obtener(id, productoDAO::getById);
+        });
+    }
+
+// Devuelve varios productos por ID: los cacheados sin consultar y el resto con
+// un solo getByIds del DAO (IN por bloques), en vez de un getById por ID.
+
+
+    @Override
+    public Map<Integer, Producto> getByIds(Collection<Integer> ids) throws Exception {
+        return M_GET_BY_IDS.medir(() -> {
+            if (ids == null) {
+                throw new IllegalArgumentException("La lista de IDs no puede ser null");
+            }
+            return cache.obtenerVarios(ids, productoDAO::getByIds);
+        });
+    }
+
+// Cargador para una operación que resuelve muchos productos desde varios
+// hilos (ver CargadorPorLotes): los getById concurrentes van en un getByIds.
+
+
+    public CargadorPorLotes<Producto> nuevoCargadorPorLotes() {
+        return new CargadorPorLotes<>(this::getByIds);
     }
 
 // Devuelve todos los productos disponibles.}
@@ -97,7 +345,23 @@ public class ProductoServiceImpl implements GenericService<Producto> {
     
     @Override
     public List<Producto> getAll() throws Exception {
-        return productoDAO.getAll();
+        return M_GET_ALL.medir(() -> {
+            return productoDAO.getAll();
+        });
+    }
+
+// Recorre los productos sin cargarlos todos en memoria. Cerrar el Stream al terminar.
+
+
+    public Stream<Producto> streamAll() throws Exception {
+        return productoDAO.streamAll();
+    }
+
+// Igual que streamAll, eligiendo si el CodigoBarras viene en la misma consulta
+// (EAGER) o se carga al pedirlo (LAZY, sin JOIN).
+
+    public Stream<Producto> streamAll(ModoCarga modo) throws Exception {
+        return productoDAO.streamAll(modo);
     }
 
    
@@ -107,16 +371,150 @@ public class ProductoServiceImpl implements GenericService<Producto> {
         return this.codigoBarrasServiceImpl;
     }
 
-// Busca productos por nombre o marca usando coincidencias parciales.
+// Cache de productos, para consultar sus métricas (hit ratio, desalojos...).
+
+    public CacheEntidades<Producto> getCache() {
+        return cache;
+    }
+
+// Busca productos por nombre o marca usando coincidencias parciales, con el
+// LIKE '%filtro%' del DAO. Con INDICE_SUBCADENAS se resuelve con el índice de
+// trigramas en memoria (ordenado por ID) y los productos se traen con un
+// getByIds (IN por bloques); igual va al DAO si el filtro trae comodines de
+// LIKE (% o _) o coincide con más de MAX_IDS_POR_INDICE productos: una sola
+// consulta sale más barata que muchos bloques de IN.
     
     
     public List<Producto> buscarPorNombreMarca(String filtro) throws Exception {
+        return M_BUSCAR_POR_NOMBRE_MARCA.medir(() -> {
+            if (filtro == null || filtro.trim().isEmpty()) {
+                throw new IllegalArgumentException("El filtro de búsqueda no puede estar vacío");
+            }
+            if (!INDICE_SUBCADENAS || filtro.indexOf('%') >= 0 || filtro.indexOf('_') >= 0) {
+                return productoDAO.buscarPorNombreMarca(filtro);
+            }
+            asegurarIndices();
+            List<Integer> ids = indiceSubcadenas.buscar(filtro);
+            if (ids.size() > MAX_IDS_POR_INDICE) {
+                return productoDAO.buscarPorNombreMarca(filtro);
+            }
+            return cargarPorIds(ids);
+        });
+    }
+
+// Búsqueda por palabras sobre nombre, marca y categoría usando el índice
+// invertido en memoria. Devuelve hasta "limite" productos por relevancia.
+
+
+    public List<Producto> buscarTexto(String consulta, int limite) throws Exception {
+        return M_BUSCAR_TEXTO.medir(() -> {
+            if (consulta == null || consulta.trim().isEmpty()) {
+                throw new IllegalArgumentException("La consulta no puede estar vacía");
+            }
+            if (limite <= 0 || limite > TAMANIO_PAGINA_MAX) {
+                throw new IllegalArgumentException("El límite debe estar entre 1 y " + TAMANIO_PAGINA_MAX);
+            }
+            asegurarIndices();
+            return cargarPorIds(indiceTexto.buscar(consulta, limite));
+        });
+    }
+
+// Autocompletado de nombres y marcas para cada tecla: copia en "destino" las
+// mejores terminaciones del prefijo (más productos primero) y devuelve cuántas.
+// Pensado para reutilizar el mismo arreglo entre teclas y no crear objetos.
+
+
+    public int autocompletar(CharSequence prefijo, String[] destino) throws Exception {
+        if (prefijo == null || destino == null) {
+            throw new IllegalArgumentException("El prefijo y el destino no pueden ser null");
+        }
+        asegurarIndices();
+        return autocompletado.autocompletar(prefijo, destino);
+    }
+
+    public List<String> autocompletar(String prefijo) throws Exception {
+        if (prefijo == null) {
+            throw new IllegalArgumentException("El prefijo no puede ser null");
+        }
+        asegurarIndices();
+        return autocompletado.autocompletar(prefijo);
+    }
+
+// Resuelve el producto de un código escaneado: valor -> CodigoBarras por el
+// índice hash y CodigoBarras -> Producto por el mapa en memoria. Solo si el
+// código no se vio antes consulta el producto por la FK.
+
+
+    public Producto buscarPorCodigoBarras(String valor) throws Exception {
+        return buscarPorCodigoBarras(valor, this::getById);
+    }
+
+// Igual, pero el producto se obtiene con "cargador" (por ejemplo, el getById
+// de un CargadorPorLotes al resolver una cesta).
+
+    Producto buscarPorCodigoBarras(String valor, CacheEntidades.Cargador<Producto> cargador) throws Exception {
+        return M_BUSCAR_POR_CODIGO_BARRAS.medir(() -> {
+            CodigoBarras codigoBarras = codigoBarrasServiceImpl.buscarPorValor(valor);
+            if (codigoBarras == null) {
+                return null;
+            }
+
+            Integer productoId = productoPorCodigoBarras.get(codigoBarras.getId());
+            if (productoId != null) {
+                Producto producto = cargador.cargar(productoId);
+                if (producto != null && producto.getCodBarras() != null
+                        && producto.getCodBarras().getId() == codigoBarras.getId()) {
+                    return producto;
+                }
+                productoPorCodigoBarras.remove(codigoBarras.getId(), productoId);
+                codigoBarrasPorProducto.remove(productoId, codigoBarras.getId());
+            }
+
+            Producto producto = productoDAO.getByCodigoBarrasId(codigoBarras.getId());
+            indexarCodigoBarras(producto);
+            return producto;
+        });
+    }
+
+// Devuelve la página de productos siguiente al cursor (0 para la primera).
+
+
+    public Pagina<Producto> listarPagina(int despuesDeId, int tamanio) throws Exception {
+        validatePagina(despuesDeId, tamanio);
+        return productoDAO.listarPagina(despuesDeId, tamanio);
+    }
+
+// Búsqueda por nombre o marca paginada por cursor.
+
+
+    public Pagina<Producto> buscarPorNombreMarcaPagina(String filtro, int despuesDeId, int tamanio) throws Exception {
         if (filtro == null || filtro.trim().isEmpty()) {
             throw new IllegalArgumentException("El filtro de búsqueda no puede estar vacío");
         }
-        return productoDAO.buscarPorNombreMarca(filtro);
+        validatePagina(despuesDeId, tamanio);
+        return productoDAO.buscarPorNombreMarcaPagina(filtro, despuesDeId, tamanio);
+    }
+
+// Listado liviano para pantallas de lista: solo id, nombre, marca y precio,
+// sin JOIN a CodigoBarras. Para el detalle, getById.
+
+
+    public Pagina<ProductoResumen> listarResumenPagina(int despuesDeId, int tamanio) throws Exception {
+        validatePagina(despuesDeId, tamanio);
+        return productoDAO.listarResumenPagina(despuesDeId, tamanio);
     }
 
+// Búsqueda por nombre o marca paginada, devolviendo resúmenes.
+
+
+    public Pagina<ProductoResumen> buscarResumenPorNombreMarcaPagina(String filtro, int despuesDeId, int tamanio)
+            throws Exception {
+        if (filtro == null || filtro.trim().isEmpty()) {
+            throw new IllegalArgumentException("El filtro de búsqueda no puede estar vacío");
+        }
+        validatePagina(despuesDeId, tamanio);
+        return productoDAO.buscarResumenPorNombreMarcaPagina(filtro, despuesDeId, tamanio);
+    }
     
     public void eliminarCodigoBarrasDeProducto(int personaId, int domicilioId) throws Exception {
         if (personaId <= 0 || domicilioId <= 0) {
@@ -132,16 +530,141 @@ public class ProductoServiceImpl implements GenericService<Producto> {
             throw new IllegalArgumentException("El domicilio no pertenece a esta persona");
         }
 
-        // Secuencia transaccional: actualizar FK → eliminar domicilio
+        // Secuencia transaccional: actualizar FK → eliminar domicilio (un solo commit)
         persona.setCodBarras(null);
-        productoDAO.actualizar(persona);
-        codigoBarrasServiceImpl.eliminar(domicilioId);
+        try (TransactionManager tx = new TransactionManager(DatabaseConnection.getConnection())) {
+            tx.startTransaction();
+            productoDAO.actualizarTx(persona, tx.getConnection());
+            codigoBarrasServiceImpl.eliminarTx(domicilioId, tx.getConnection());
+            tx.commit();
+        }
+        persona.limpiarModificados();
+
+        cache.invalidar(personaId);
+        codigoBarrasServiceImpl.registrarEliminado(domicilioId);
+        desindexarCodigoBarras(personaId);
+    }
+
+// Inserta el CodigoBarras si es nuevo (ID 0) o actualiza sus datos si ya existe.
+
+
+    private void guardarCodigoBarrasTx(CodigoBarras codigoBarras, Connection conn) throws Exception {
+        if (codigoBarras == null) {
+            return;
+        }
+        if (codigoBarras.getId() == 0) {
+            codigoBarrasServiceImpl.insertarTx(codigoBarras, conn);
+        } else {
+            codigoBarrasServiceImpl.actualizarTx(codigoBarras, conn);
+        }
+    }
+
+// Construye los índices en memoria con un único recorrido en streaming. Los
+// índices no usan el CodigoBarras, así que se lee sin JOIN (ModoCarga.LAZY).
+
+
+    private void asegurarIndices() throws Exception {
+        if (indicesConstruidos) {
+            return;
+        }
+        synchronized (indices) {
+            if (indicesConstruidos) {
+                return;
+            }
+            try (Stream<Producto> productos = productoDAO.streamAll(ModoCarga.LAZY)) {
+                productos.forEach(producto -> {
+                    for (IndiceProductos indice : indices) {
+                        indice.indexar(producto);
+                    }
+                });
+            } catch (RuntimeException e) {
+                for (IndiceProductos indice : indices) {
+                    indice.limpiar();
+                }
+                throw e;
+            }
+            indicesConstruidos = true;
+        }
+    }
+
+// Las escrituras esperan a que termine una construcción en curso; si los
+// índices todavía no se construyeron no hay nada que actualizar.
+
+
+    private void actualizarIndices(Producto producto) {
+        synchronized (indices) {
+            if (indicesConstruidos) {
+                for (IndiceProductos indice : indices) {
+                    indice.indexar(producto);
+                }
+            }
+        }
+    }
+
+    private void removerDeIndices(int id) {
+        synchronized (indices) {
+            if (indicesConstruidos) {
+                for (IndiceProductos indice : indices) {
+                    indice.remover(id);
+                }
+            }
+        }
+    }
+
+// Resuelve IDs devueltos por un índice a productos (vía cache y un solo
+// getByIds para los que faltan), en el mismo orden.
+
+
+    private List<Producto> cargarPorIds(List<Integer> ids) throws Exception {
+        Map<Integer, Producto> porId = getByIds(ids);
+        List<Producto> productos = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            Producto producto = porId.get(id);
+            if (producto != null) {
+                productos.add(producto);
+            }
+        }
+        return productos;
+    }
+
+// Registra qué producto usa cada CodigoBarras.
+
+
+    private void indexarCodigoBarras(Producto producto) {
+        if (producto != null && producto.getId() > 0 && producto.getCodigoBarrasId() > 0) {
+            Integer anterior = codigoBarrasPorProducto.put(producto.getId(), producto.getCodigoBarrasId());
+            if (anterior != null && anterior != producto.getCodigoBarrasId()) {
+                productoPorCodigoBarras.remove(anterior, producto.getId());
+            }
+            productoPorCodigoBarras.put(producto.getCodigoBarrasId(), producto.getId());
+        }
+    }
+
+// Quita el vínculo del producto con su CodigoBarras (si tenía uno registrado).
+
+    private void desindexarCodigoBarras(int productoId) {
+        Integer codigoBarrasId = codigoBarrasPorProducto.remove(productoId);
+        if (codigoBarrasId != null) {
+            productoPorCodigoBarras.remove(codigoBarrasId, productoId);
+        }
+    }
+
+// Valida cursor y tamaño de página.
+
+
+    private void validatePagina(int despuesDeId, int tamanio) {
+        if (despuesDeId < 0) {
+            throw new IllegalArgumentException("El cursor de página no puede ser negativo");
+        }
+        if (tamanio <= 0 || tamanio > TAMANIO_PAGINA_MAX) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + TAMANIO_PAGINA_MAX);
+        }
     }
 
 // Valida que un producto tenga nombre, marca y categoría válidos.
     
     
-    private void validateProducto(Producto persona) {
+    void validateProducto(Producto persona) {
         if (persona == null) {
             throw new IllegalArgumentException("La persona no puede ser null");
         }
@@ -0,0 +1,69 @@
+package Service;
+
+import Dao.ConflictoVersionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Reintento de escrituras con concurrencia optimista: repite la operación
+// mientras falle con ConflictoVersionException, hasta "intentos" veces.
+// Entre intentos espera un tiempo al azar que crece con cada conflicto
+// (backoff exponencial con jitter), así los escritores que chocaron no vuelven
+// a chocar en el mismo instante. Ningún escritor bloquea a otro: solo repite
+// quien perdió la carrera.
+// La operación tiene que releer la entidad en cada intento; reintentar con la
+// versión vieja fallaría siempre igual.
+
+public final class ReintentoOptimista {
+
+    public static final int INTENTOS_DEFAULT = Integer.getInteger("reintento.intentos", 5);
+    private static final long ESPERA_BASE_MICROS = 500;
+    private static final long ESPERA_MAX_MICROS = 50_000;
+
+    @FunctionalInterface
+    public interface Intento<T> {
+        T ejecutar() throws Exception;
+    }
+
+// Cambios a aplicar sobre la versión recién leída de una entidad.
+
+    @FunctionalInterface
+    public interface Cambios<T> {
+        void aplicar(T entidad) throws Exception;
+    }
+
+    private ReintentoOptimista() {
+    }
+
+    public static <T> T ejecutar(Intento<T> intento) throws Exception {
+        return ejecutar(INTENTOS_DEFAULT, intento);
+    }
+
+// Devuelve el resultado del primer intento sin conflicto. Si se agotan los
+// intentos, relanza el último ConflictoVersionException.
+
+    public static <T> T ejecutar(int intentos, Intento<T> intento) throws Exception {
+        if (intentos <= 0) {
+            throw new IllegalArgumentException("La cantidad de intentos debe ser mayor a 0");
+        }
+        if (intento == null) {
+            throw new IllegalArgumentException("El intento no puede ser null");
+        }
+        for (int i = 1; ; i++) {
+            try {
+                return intento.ejecutar();
+            } catch (ConflictoVersionException e) {
+                if (i >= intentos) {
+                    throw e;
+                }
+                esperar(i);
+            }
+        }
+    }
+
+    private static void esperar(int intento) {
+        long tope = Math.min(ESPERA_MAX_MICROS, ESPERA_BASE_MICROS << Math.min(intento - 1, 16));
+        long micros = ThreadLocalRandom.current().nextLong(tope + 1);
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(micros));
+    }
+}
@@ -0,0 +1,51 @@
+package Service;
+
+// Resultado de una pasada de archivo de eliminados: filas movidas por tabla,
+// lotes (transacciones) y rendimiento.
+
+public class ReporteArchivo {
+
+    private final long productos;
+    private final long codigosBarras;
+    private final long lotes;
+    private final long millis;
+
+    public ReporteArchivo(long productos, long codigosBarras, long lotes, long millis) {
+        this.productos = productos;
+        this.codigosBarras = codigosBarras;
+        this.lotes = lotes;
+        this.millis = millis;
+    }
+
+    public long getProductos() {
+        return productos;
+    }
+
+    public long getCodigosBarras() {
+        return codigosBarras;
+    }
+
+    public long getFilas() {
+        return productos + codigosBarras;
+    }
+
+    public long getLotes() {
+        return lotes;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+// Incluye las pausas entre lotes: es el ritmo real que ve la base.
+
+    public double getFilasPorSegundo() {
+        return millis == 0 ? getFilas() : getFilas() * 1000.0 / millis;
+    }
+
+    @Override
+    public String toString() {
+        return "Archivo: " + productos + " productos y " + codigosBarras + " códigos de barras en " + lotes
+                + " lotes, " + millis + " ms (" + String.format("%.1f", getFilasPorSegundo()) + " filas/s)";
+    }
+}
@@ -0,0 +1,44 @@
+package Service;
+
+// Resultado de una exportación de catálogo: filas y bytes escritos y rendimiento.
+
+public class ReporteExportacion {
+
+    private final long filas;
+    private final long bytes;
+    private final long millis;
+
+    public ReporteExportacion(long filas, long bytes, long millis) {
+        this.filas = filas;
+        this.bytes = bytes;
+        this.millis = millis;
+    }
+
+    public long getFilas() {
+        return filas;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    public double getFilasPorSegundo() {
+        return millis == 0 ? filas : filas * 1000.0 / millis;
+    }
+
+    public double getMegabytesPorSegundo() {
+        double mb = bytes / (1024.0 * 1024.0);
+        return millis == 0 ? mb : mb * 1000.0 / millis;
+    }
+
+    @Override
+    public String toString() {
+        return "Exportación: " + filas + " filas, " + bytes + " bytes en " + millis + " ms ("
+                + String.format("%.1f", getFilasPorSegundo()) + " filas/s, "
+                + String.format("%.1f", getMegabytesPorSegundo()) + " MB/s)";
+    }
+}
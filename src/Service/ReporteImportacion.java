@@ -0,0 +1,53 @@
+package Service;
+
+// Resultado de una importación de catálogo: filas procesadas y rendimiento.
+
+public class ReporteImportacion {
+
+    private final long leidas;
+    private final long importadas;
+    private final long rechazadas;
+    private final long lotes;
+    private final long millis;
+
+    public ReporteImportacion(long leidas, long importadas, long rechazadas, long lotes, long millis) {
+        this.leidas = leidas;
+        this.importadas = importadas;
+        this.rechazadas = rechazadas;
+        this.lotes = lotes;
+        this.millis = millis;
+    }
+
+    public long getLeidas() {
+        return leidas;
+    }
+
+    public long getImportadas() {
+        return importadas;
+    }
+
+    public long getRechazadas() {
+        return rechazadas;
+    }
+
+    public long getLotes() {
+        return lotes;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    public double getFilasPorSegundo() {
+        return millis == 0 ? leidas : leidas * 1000.0 / millis;
+    }
+
+    @Override
+    public String toString() {
+        return "Importación: " + leidas + " filas leídas, "
+                + importadas + " importadas, "
+                + rechazadas + " rechazadas, "
+                + lotes + " lotes en " + millis + " ms ("
+                + String.format("%.1f", getFilasPorSegundo()) + " filas/s)";
+    }
+}
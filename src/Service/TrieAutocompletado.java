@@ -0,0 +1,250 @@
+package Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import Entities.Producto;
+
+// Trie de prefijos sobre nombres y marcas de productos para autocompletar.
+// Cada nodo guarda precalculadas sus K mejores terminaciones (más productos
+// primero, luego alfabético), así una consulta solo recorre el prefijo y copia
+// ese arreglo: no crea objetos por consulta si se usa autocompletar(prefijo, destino).
+// Los hijos se guardan en arreglos ordenados por carácter (búsqueda binaria).
+
+class TrieAutocompletado implements IndiceProductos {
+
+    private static final Termino[] SIN_TERMINOS = new Termino[0];
+
+    private final int k;
+    private final Nodo raiz = new Nodo();
+
+// Término normalizado -> texto a mostrar y cantidad de productos que lo usan.
+
+    private final Map<String, Termino> terminos = new HashMap<>();
+
+// ID de producto -> términos que aportó (nombre y marca), para removerlo.
+
+    private final Map<Integer, String[]> terminosPorProducto = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    TrieAutocompletado(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("K debe ser mayor a 0");
+        }
+        this.k = k;
+    }
+
+    int getK() {
+        return k;
+    }
+
+    @Override
+    public void indexar(Producto producto) {
+        lock.writeLock().lock();
+        try {
+            removerSinLock(producto.getId());
+            String[] propios = { producto.getNombre(), producto.getMarca() };
+            terminosPorProducto.put(producto.getId(), propios);
+            for (String texto : propios) {
+                if (texto != null && !texto.trim().isEmpty()) {
+                    sumar(texto.trim(), 1);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remover(int id) {
+        lock.writeLock().lock();
+        try {
+            removerSinLock(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void limpiar() {
+        lock.writeLock().lock();
+        try {
+            terminos.clear();
+            terminosPorProducto.clear();
+            raiz.hijos = new Nodo[0];
+            raiz.claves = new char[0];
+            raiz.top = SIN_TERMINOS;
+            raiz.terminal = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+// Copia en "destino" hasta destino.length (máximo K) terminaciones del prefijo
+// y devuelve cuántas copió. No crea objetos.
+
+    int autocompletar(CharSequence prefijo, String[] destino) {
+        lock.readLock().lock();
+        try {
+            Nodo nodo = raiz;
+            for (int i = 0; i < prefijo.length() && nodo != null; i++) {
+                nodo = nodo.hijo(Normalizador.plegar(prefijo.charAt(i)));
+            }
+            if (nodo == null) {
+                return 0;
+            }
+            int cantidad = Math.min(destino.length, nodo.top.length);
+            for (int i = 0; i < cantidad; i++) {
+                destino[i] = nodo.top[i].texto;
+            }
+            return cantidad;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<String> autocompletar(CharSequence prefijo) {
+        String[] destino = new String[k];
+        int cantidad = autocompletar(prefijo, destino);
+        return new ArrayList<>(Arrays.asList(destino).subList(0, cantidad));
+    }
+
+    private void removerSinLock(int id) {
+        String[] previos = terminosPorProducto.remove(id);
+        if (previos == null) {
+            return;
+        }
+        for (String texto : previos) {
+            if (texto != null && !texto.trim().isEmpty()) {
+                sumar(texto.trim(), -1);
+            }
+        }
+    }
+
+// Ajusta el conteo de un término y recalcula los top-K del camino hasta la raíz.
+
+    private void sumar(String texto, int delta) {
+        String clave = plegar(texto);
+        Termino termino = terminos.get(clave);
+        if (termino == null) {
+            if (delta <= 0) {
+                return;
+            }
+            termino = new Termino(texto);
+            terminos.put(clave, termino);
+        }
+        termino.conteo += delta;
+
+        Nodo[] camino = new Nodo[clave.length() + 1];
+        camino[0] = raiz;
+        for (int i = 0; i < clave.length(); i++) {
+            camino[i + 1] = camino[i].hijoOCrear(clave.charAt(i));
+        }
+
+        Nodo hoja = camino[clave.length()];
+        if (termino.conteo <= 0) {
+            terminos.remove(clave);
+            hoja.terminal = null;
+        } else {
+            hoja.terminal = termino;
+        }
+
+        for (int i = clave.length(); i >= 0; i--) {
+            Nodo nodo = camino[i];
+            if (i > 0 && nodo.terminal == null && nodo.claves.length == 0) {
+                camino[i - 1].quitarHijo(clave.charAt(i - 1));
+                continue;
+            }
+            nodo.recalcularTop(k);
+        }
+    }
+
+    private static String plegar(String texto) {
+        char[] chars = new char[texto.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Normalizador.plegar(texto.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    private static int comparar(Termino a, Termino b) {
+        if (a.conteo != b.conteo) {
+            return Integer.compare(b.conteo, a.conteo);
+        }
+        return a.texto.compareToIgnoreCase(b.texto);
+    }
+
+    private static final class Termino {
+        private final String texto;
+        private int conteo;
+
+        private Termino(String texto) {
+            this.texto = texto;
+        }
+    }
+
+    private static final class Nodo {
+        private char[] claves = new char[0];
+        private Nodo[] hijos = new Nodo[0];
+        private Termino terminal;
+        private Termino[] top = SIN_TERMINOS;
+
+        private Nodo hijo(char c) {
+            int pos = Arrays.binarySearch(claves, c);
+            return pos >= 0 ? hijos[pos] : null;
+        }
+
+        private Nodo hijoOCrear(char c) {
+            int pos = Arrays.binarySearch(claves, c);
+            if (pos >= 0) {
+                return hijos[pos];
+            }
+            int insercion = -pos - 1;
+            char[] nuevasClaves = new char[claves.length + 1];
+            Nodo[] nuevosHijos = new Nodo[hijos.length + 1];
+            System.arraycopy(claves, 0, nuevasClaves, 0, insercion);
+            System.arraycopy(hijos, 0, nuevosHijos, 0, insercion);
+            nuevasClaves[insercion] = c;
+            nuevosHijos[insercion] = new Nodo();
+            System.arraycopy(claves, insercion, nuevasClaves, insercion + 1, claves.length - insercion);
+            System.arraycopy(hijos, insercion, nuevosHijos, insercion + 1, hijos.length - insercion);
+            claves = nuevasClaves;
+            hijos = nuevosHijos;
+            return nuevosHijos[insercion];
+        }
+
+        private void quitarHijo(char c) {
+            int pos = Arrays.binarySearch(claves, c);
+            if (pos < 0) {
+                return;
+            }
+            char[] nuevasClaves = new char[claves.length - 1];
+            Nodo[] nuevosHijos = new Nodo[hijos.length - 1];
+            System.arraycopy(claves, 0, nuevasClaves, 0, pos);
+            System.arraycopy(hijos, 0, nuevosHijos, 0, pos);
+            System.arraycopy(claves, pos + 1, nuevasClaves, pos, claves.length - pos - 1);
+            System.arraycopy(hijos, pos + 1, nuevosHijos, pos, hijos.length - pos - 1);
+            claves = nuevasClaves;
+            hijos = nuevosHijos;
+        }
+
+// top-K de este nodo = mejores entre su propio término y los top-K de sus hijos.
+
+        private void recalcularTop(int k) {
+            List<Termino> candidatos = new ArrayList<>();
+            if (terminal != null) {
+                candidatos.add(terminal);
+            }
+            for (Nodo hijo : hijos) {
+                candidatos.addAll(Arrays.asList(hijo.top));
+            }
+            candidatos.sort(TrieAutocompletado::comparar);
+            int cantidad = Math.min(k, candidatos.size());
+            top = candidatos.subList(0, cantidad).toArray(SIN_TERMINOS);
+        }
+    }
+}